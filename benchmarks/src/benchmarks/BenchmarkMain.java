@@ -0,0 +1,15 @@
+package benchmarks;
+
+import java.io.IOException;
+
+/**
+ * Runs the JMH benchmarks of the Controller hot paths. Arguments are passed to JMH, e.g.
+ * {@code RoundBenchmark -p words=500000} runs a single benchmark with one list size, and {@code -h} lists
+ * every option. Without arguments, every benchmark is run with every parameter combination.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws IOException {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import controller.WordPackConverter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Generated input data shared by the benchmarks.
+ */
+class Fixtures {
+
+    static final String[] DIFFICULTIES={"easy","medium","hard"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates a directory with easywords.txt, mediumwords.txt and hardwords.txt, and optionally words.pack.
+     * @param size number of words of each difficulty
+     * @param pack true to also create the binary word pack
+     * @return the new directory
+     */
+    static Path createWordDirectory(int size,boolean pack) {
+        try {
+            Path directory=Files.createTempDirectory("charades-bench");
+            ArrayList<String> names=new ArrayList<>();
+            ArrayList<ArrayList<String>> sections=new ArrayList<>();
+            for(String difficulty:DIFFICULTIES) {
+                ArrayList<String> words=new ArrayList<>(size);
+                for(int i=0;i<size;i++) {
+                    words.add(difficulty+" word "+i);
+                }
+                Files.write(directory.resolve(difficulty+"words.txt"),words,StandardCharsets.UTF_8);
+                names.add(difficulty);
+                sections.add(words);
+            }
+            if(pack) {
+                WordPackConverter.convert(directory.resolve("words.pack").toString(),names,sections);
+            }
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes a directory created by createWordDirectory.
+     * @param directory the directory
+     */
+    static void delete(Path directory) {
+        try(Stream<Path> files=Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param team number of the team
+     * @param members number of members
+     * @return member names of the team written on separate lines, as typed in the GUI
+     */
+    static String members(int team,int members) {
+        StringBuilder lines=new StringBuilder();
+        for(int i=0;i<members;i++) {
+            lines.append("player ").append(team).append('-').append(i).append('\n');
+        }
+        return lines.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import controller.Controller;
+import controller.WordLibrary;
+import gui.CharadesException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Moving on to the next team, player and action after each round.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class RotationBenchmark {
+
+    @Param({"2","100","1000"})
+    int teams;
+
+    @Param({"2","10"})
+    int members;
+
+    Path directory;
+    Controller controller;
+
+    @Setup
+    public void setUp() throws CharadesException {
+        directory=Fixtures.createWordDirectory(60,false);
+        controller=new Controller(new WordLibrary(directory));
+        controller.setNumberTeams(String.valueOf(teams));
+        for(int i=0;i<teams;i++) {
+            controller.addTeam("team "+i,Fixtures.members(i,members));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public void nextTurn(Blackhole blackhole) {
+        blackhole.consume(controller.getNextTeam());
+        blackhole.consume(controller.getNextPlayer());
+        blackhole.consume(controller.getNextAction());
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import controller.Controller;
+import controller.WordLibrary;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Choosing the word of a round with startRound.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class RoundBenchmark {
+
+    @Param({"60","10000","500000"})
+    int words;
+
+    @Param({"text","pack"})
+    String format;
+
+    Path directory;
+    Controller controller;
+
+    @Setup
+    public void setUp() {
+        directory=Fixtures.createWordDirectory(words,format.equals("pack"));
+        controller=new Controller(new WordLibrary(directory));
+        controller.setSeed(42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public String startRound() {
+        controller.startRound("medium");
+        return controller.currentWord;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import controller.Controller;
+import controller.WordLibrary;
+import gui.CharadesException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading the scoreboard, alone and after each guess as the GUI does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3,time=1)
+@Measurement(iterations=5,time=1)
+@Fork(1)
+public class ScoreBoardBenchmark {
+
+    @Param({"10","100","1000"})
+    int teams;
+
+    Path directory;
+    Controller controller;
+
+    @Setup
+    public void setUp() throws CharadesException {
+        directory=Fixtures.createWordDirectory(60,false);
+        controller=new Controller(new WordLibrary(directory));
+        controller.setNumberTeams(String.valueOf(teams));
+        for(int i=0;i<teams;i++) {
+            controller.addTeam("team "+i,Fixtures.members(i,2));
+        }
+        controller.getNextTeam();
+        controller.getNextPlayer();
+        controller.startRound("hard");
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public String getScoreBoard() {
+        return controller.getScoreBoard();
+    }
+
+    @Benchmark
+    public String goodGuessThenScoreBoard() {
+        controller.goodGuess();
+        String scores=controller.getScoreBoard();
+        controller.getNextTeam();
+        return scores;
+    }
+}
@@ -0,0 +1,69 @@
+package benchmarks;
+
+import controller.Controller;
+import controller.WordLibrary;
+import gui.CharadesException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Registering a whole roster through addTeam, one team after the other as the GUI does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+@Fork(1)
+public class TeamBenchmark {
+
+    @Param({"10","1000","10000"})
+    int teams;
+
+    @Param({"2","10","100"})
+    int members;
+
+    Path directory;
+    WordLibrary library;
+    String[] names;
+    String[] memberLines;
+
+    @Setup
+    public void setUp() {
+        directory=Fixtures.createWordDirectory(60,false);
+        library=new WordLibrary(directory);
+        names=new String[teams];
+        memberLines=new String[teams];
+        for(int i=0;i<teams;i++) {
+            names[i]="team "+i;
+            memberLines[i]=Fixtures.members(i,members);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public Controller addTeams() throws CharadesException {
+        Controller controller=new Controller(library);
+        controller.setNumberTeams(String.valueOf(teams));
+        for(int i=0;i<teams;i++) {
+            controller.addTeam(names[i],memberLines[i]);
+        }
+        return controller;
+    }
+}
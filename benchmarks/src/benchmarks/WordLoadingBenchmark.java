@@ -0,0 +1,100 @@
+package benchmarks;
+
+import controller.Controller;
+import controller.Difficulty;
+import controller.WordLibrary;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading the word lists (what Controller construction used to do through loadFile), from text files and from the
+ * binary word pack, and constructing a Controller on an already loaded library. Loading waits for all the work it
+ * starts in the background, the collision report and the indexes included, so that none of it spills into the next
+ * iteration; the indexes are either built ("cold") or read from the cache written by the setup ("cached").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3,time=2)
+@Measurement(iterations=5,time=2)
+@Fork(1)
+public class WordLoadingBenchmark {
+
+    @Param({"60","10000","500000"})
+    int words;
+
+    @Param({"text","pack"})
+    String format;
+
+    Path directory;
+    WordLibrary library;
+
+    @Setup
+    public void setUp() {
+        directory=Fixtures.createWordDirectory(words,format.equals("pack"));
+        library=new WordLibrary(directory);
+        for(Difficulty difficulty:library.getConfig().getDifficulties()) {
+            library.getIndex(difficulty);
+        }
+        library.getCollisions();
+    }
+
+    /**
+     * Cached indexes seen by each load: deleted before each load in the cold case, kept in the cached case.
+     */
+    @State(Scope.Benchmark)
+    public static class IndexCache {
+        @Param({"cold","cached"})
+        String index;
+
+        @Setup(Level.Invocation)
+        public void clear(WordLoadingBenchmark state) {
+            if(!index.equals("cold")) {
+                return;
+            }
+            try {
+                for(Difficulty difficulty:state.library.getConfig().getDifficulties()) {
+                    Files.deleteIfExists(state.directory.resolve("words."+difficulty.key+".idx"));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public int loadWordLists(IndexCache cache) {
+        WordLibrary loaded=new WordLibrary(directory);
+        int total=0;
+        for(Difficulty difficulty:loaded.getConfig().getDifficulties()) {
+            total+=loaded.getIndex(difficulty).list().size();
+        }
+        return total+loaded.getCollisions().size();
+    }
+
+    @Benchmark
+    public Controller newController() {
+        return new Controller(library);
+    }
+}
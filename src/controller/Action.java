@@ -0,0 +1,24 @@
+package controller;
+
+/**
+ * The way the player makes their team guess the word.
+ */
+public enum Action {
+    DRAW("draw"),
+    EXPLAIN("explain"),
+    ACT("act");
+
+    /**
+     * Name shown to the players and used in the configuration.
+     */
+    public final String key;
+
+    Action(String key) {
+        this.key=key;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,23 @@
+package controller;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Way for a user interface to play a game it does not own: commands are executed one at a time, in the order they
+ * were submitted, and each one completes with the state of the game after it.
+ */
+public interface CommandChannel extends AutoCloseable {
+
+    /**
+     * Queues a command without waiting for it.
+     * @param command step of the game
+     * @return the state after the command, or a CharadesException if the game rejected it
+     */
+    CompletableFuture<GameSnapshot> submit(GameCommand command);
+
+    /**
+     * Executes the commands already submitted and releases the game.
+     */
+    @Override
+    void close();
+}
@@ -1,26 +1,63 @@
 package controller;
 
 import gui.CharadesException;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.Flow;
 
 public class Controller {
 
-    boolean guessed;
-    public ArrayList<Team> teams=new ArrayList<>();
+    /**
+     * Number of rounds that can be corrected or undone.
+     */
+    static final int HISTORY_SIZE=1024;
+
+    private final RoundHistory history=new RoundHistory(HISTORY_SIZE);
+    private Teams teams=new Teams();
+    private HashMap<String,Integer> teamsByName=new HashMap<>();
+    private ScoreBoard scoreBoard=new ScoreBoard(teams);
     public int numberTeams;
     public int currentTeam;
     Random random;
-    public String currentWord,currentDifficulty;
-    private ArrayList<String> easyWords,mediumWords,hardWords;
-    private HashMap<String, Integer> difficultyToPoint;
-    private HashMap<String,ArrayList<String>> difficultyToList;
+    public String currentWord;
+    public Difficulty currentDifficulty;
+    private final GameConfig config;
+    private final int[] difficultyToPoint;
+    private final WordLibrary words;
+    private final WordSelector[] difficultyToDeck;
+    /**
+     * List each deck was made for; a new deck is made when the words were reloaded.
+     */
+    private final WordList[] deckToList;
+    /**
+     * Words the game draws, or null for every word, and for each difficulty the matching words of the index they were found in.
+     */
+    private WordFilter wordFilter;
+    private final WordIndex[] filteredIndex;
+    private final WordList[] filteredList;
+    /**
+     * Results of the words over every game, or null if words are drawn uniformly.
+     */
+    private final WordStats stats;
+    private Action lastAction;
+    private int actionRepeats;
+    /**
+     * Time the current round started, or 0 if metrics are disabled.
+     */
+    private long roundStart;
+    private final RoundTimer timer=new RoundTimer();
+    private GameJournal journal;
+    private final GameEventPublisher events=new GameEventPublisher();
 
     /**
      * Sets the number of teams to the number given as a parameter.
@@ -32,140 +69,391 @@ public class Controller {
             if (n<=0) {
                 throw new CharadesException("A positive value is expected.");
             }
-            numberTeams=n;
-            currentTeam=1;
+            applyNumberTeams(n);
         }
         catch (NumberFormatException e) {
             throw new CharadesException("An integer value is expected.");
         }
     }
 
+    /**
+     * Sets the number of teams and waits for the first team.
+     * @param n total number of teams, already validated
+     */
+    void applyNumberTeams(int n) {
+        numberTeams=n;
+        currentTeam=1;
+        if(journal!=null) {
+            journal.setNumberTeams(n);
+        }
+    }
+
     /**
      * Adds the given team to the list of existing teams.
      * @param teamName name of the team (must be unique)
      * @param teamMembers names of team members, written on separate lines
      * @throws CharadesException if there are not enough team members, there are two team members with the same name, or there already is a team with that team name*/
     public void addTeam(String teamName,String teamMembers) throws CharadesException {
-        if(teamName.equals("")) {
-            throw new CharadesException("Team name was not added.");
-        }
+        ArrayList<String> members=parseMembers(teamMembers);
+        validateTeam(teamName,members);
+        registerTeam(teamName,members);
+    }
+
+    /**
+     * @param teamMembers names of team members, written on separate lines
+     * @return the names, without the empty lines
+     */
+    static ArrayList<String> parseMembers(String teamMembers) {
         ArrayList<String> members=new ArrayList<>();
-        String[] lines = teamMembers.split("\\r?\\n");
-        for(String line:lines) {
-            members.add(line);
-        }
-        int i=0;
-        while(i<members.size()) {
-            if(members.get(i).equals("")) {
-                members.remove(i);
-            }
-            else {
-                i++;
+        for(String line:teamMembers.split("\\r?\\n")) {
+            if(!line.equals("")) {
+                members.add(line);
             }
         }
+        return members;
+    }
+
+    /**
+     * Checks whether a team can be added, in time linear in the number of members.
+     * @param teamName name of the team
+     * @param members names of team members, without empty names
+     * @throws CharadesException if the team name is empty, there are not enough team members, some members have
+     * the same name (all of them are listed), or there already is a team with that team name
+     */
+    void validateTeam(String teamName,List<String> members) throws CharadesException {
+        validateMembers(teamName,members);
+        if(teamsByName.containsKey(teamName)) {
+            throw new CharadesException("Two teams cannot have the same name: "+teamName+".");
+        }
+    }
+
+    /**
+     * Checks a team on its own, before it is compared with the other teams, in time linear in the number of members.
+     * @param teamName name of the team
+     * @param members names of team members, without empty names
+     * @throws CharadesException if the team name is empty, there are not enough team members, or some members have
+     * the same name (all of them are listed)
+     */
+    static void validateMembers(String teamName,List<String> members) throws CharadesException {
+        if(teamName.equals("")) {
+            throw new CharadesException("Team name was not added.");
+        }
         if(members.size()<2) {
             throw new CharadesException("At least two members are required in a team.");
         }
-        for(i=0;i<members.size()-1;i++) {
-            for(int j=i+1;j<members.size();j++) {
-                if(members.get(i).equals(members.get(j))) {
-                    throw new CharadesException("Two members in the same team cannot have the same name.");
-                }
+        HashSet<String> names=new HashSet<>(members.size()*2);
+        LinkedHashSet<String> duplicates=new LinkedHashSet<>();
+        for(String member:members) {
+            if(!names.add(member)) {
+                duplicates.add(member);
             }
         }
-        for(Team t: teams) {
-            if(t.name.equals(teamName)) {
-                throw new CharadesException("Two teams cannot have the same name.");
-            }
+        if(!duplicates.isEmpty()) {
+            throw new CharadesException("Two members in the same team cannot have the same name: "+String.join(", ",duplicates)+".");
         }
-        teams.add(new Team(teamName,members));
+    }
+
+    /**
+     * Adds a team that was already validated.
+     * @param teamName name of the team
+     * @param members names of team members
+     */
+    void registerTeam(String teamName,List<String> members) {
+        int team=teams.add(teamName,members);
+        teamsByName.put(teamName,team);
+        scoreBoard.add(team);
         currentTeam++;
         if(currentTeam>numberTeams) {
             currentTeam=-1;
         }
+        if(journal!=null) {
+            journal.addTeam(teamName,members);
+        }
+        publish(GameEvent.Type.TEAM_ADDED,team,null,0,false);
     }
 
     /**
-     * Loads each line from a file and puts it into the list.
-     * @param fileName name of the file
-     * @param list empty list
+     * Adds every team of a CSV or JSON roster file (see {@link RosterImporter}), with the same rules as addTeam.
+     * Either all the teams are added or none of them. If the number of teams was not set, it becomes the number of
+     * teams in the roster.
+     * @param file roster file
+     * @return number of teams added
+     * @throws CharadesException listing every problem found in the roster
      */
-    private static void loadFile(String fileName,ArrayList<String> list) {
-        try(FileReader fileReader=new FileReader(fileName)) {
-            BufferedReader reader=new BufferedReader(fileReader);
-            String line;
-            while((line=reader.readLine())!=null) {
-                list.add(line);
+    public int importRoster(Path file) throws CharadesException {
+        ArrayList<String> errors=new ArrayList<>();
+        ArrayList<RosterImporter.Entry> roster=RosterImporter.read(file,errors);
+        if(roster.isEmpty() && errors.isEmpty()) {
+            errors.add("The roster does not contain any team.");
+        }
+        if(numberTeams>0 && teams.size()+roster.size()>numberTeams) {
+            errors.add("The roster contains "+roster.size()+" teams, but only "+(numberTeams-teams.size())+" more can be added.");
+        }
+        HashSet<String> names=new HashSet<>(roster.size()*2);
+        for(RosterImporter.Entry entry:roster) {
+            try {
+                validateTeam(entry.name,entry.members);
+                if(!names.add(entry.name)) {
+                    throw new CharadesException("Two teams cannot have the same name: "+entry.name+".");
+                }
+            } catch (CharadesException e) {
+                errors.add("Line "+entry.line+": "+e);
             }
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        if(!errors.isEmpty()) {
+            throw new CharadesException(String.join("\n",errors));
+        }
+        if(numberTeams==0) {
+            applyNumberTeams(roster.size());
+        }
+        for(RosterImporter.Entry entry:roster) {
+            registerTeam(entry.name,entry.members);
+        }
+        return roster.size();
+    }
+
+    /**
+     * @param teamName name of the team
+     * @return index of the team with that name, or -1 if there is none
+     */
+    public int getTeamIndex(String teamName) {
+        Integer team=teamsByName.get(teamName);
+        return team==null ? -1 : team;
+    }
+
+    /**
+     * @return teams of the game, indexed in the order they were added
+     */
+    public Teams getTeams() {
+        return teams;
     }
 
     /**
-     * easyWords, mediumWords, hardWords lists containing the words are initialized.
-     * difficultyToPoint and difficultyToList maps are initialized.
+     * Uses the word lists shared by every controller of this process.
+     * difficultyToPoint table is initialized.
      */
     public Controller() {
-        easyWords=new ArrayList<>();
-        mediumWords=new ArrayList<>();
-        hardWords=new ArrayList<>();
+        this(WordLibrary.getDefault());
+    }
+
+    /**
+     * difficultyToPoint table is initialized. With adaptive selection, the word statistics shared by every controller
+     * of this process are used.
+     * @param words word lists, which can be shared between controllers
+     */
+    public Controller(WordLibrary words) {
+        this(words,words.getConfig().isAdaptive() ? WordStats.getDefault() : null);
+    }
+
+    /**
+     * difficultyToPoint table is initialized.
+     * @param words word lists, which can be shared between controllers
+     * @param stats results of the words, updated after every round and used to draw the words, or null to draw them uniformly
+     */
+    public Controller(WordLibrary words,WordStats stats) {
+        this.words=words;
+        this.stats=stats;
+        config=words.getConfig();
         random=new Random();
-        loadFile("easywords.txt",easyWords);
-        loadFile("mediumwords.txt",mediumWords);
-        loadFile("hardwords.txt",hardWords);
-        difficultyToPoint=new HashMap<>();
-        difficultyToPoint.put("easy",3);
-        difficultyToPoint.put("medium",4);
-        difficultyToPoint.put("hard",5);
-        difficultyToList=new HashMap<>();
-        difficultyToList.put("easy",easyWords);
-        difficultyToList.put("medium",mediumWords);
-        difficultyToList.put("hard",hardWords);
+        difficultyToPoint=new int[config.difficultyCount()];
+        difficultyToDeck=new WordSelector[config.difficultyCount()];
+        deckToList=new WordList[config.difficultyCount()];
+        filteredIndex=new WordIndex[config.difficultyCount()];
+        filteredList=new WordList[config.difficultyCount()];
+        wordFilter=config.getWordFilter();
+        for(Difficulty difficulty:config.getDifficulties()) {
+            difficultyToPoint[difficulty.index()]=difficulty.points;
+        }
+    }
+
+    /**
+     * @return the difficulties and action rules of the game
+     */
+    public GameConfig getConfig() {
+        return config;
     }
 
     /**
-     * Makes the list of teams empty.
+     * Makes the list of teams empty and makes every word available again.
      */
     public void startNewGame() {
+        numberTeams=0;
         currentTeam=0;
-        teams=new ArrayList<>();
+        teams=new Teams();
+        teamsByName=new HashMap<>();
+        scoreBoard=new ScoreBoard(teams);
+        history.clear();
+        lastAction=null;
+        actionRepeats=0;
+        for(WordSelector deck:difficultyToDeck) {
+            if(deck!=null) {
+                deck.reset();
+            }
+        }
+        if(journal!=null) {
+            journal.event(GameJournal.NEW_GAME);
+        }
+        publish(GameEvent.Type.NEW_GAME,-1,null,0,false);
+    }
+
+    /**
+     * Seeds the random choices (words and actions), so that games can be reproduced.
+     * @param seed the same seed gives the same words and actions in the same order
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+        Arrays.fill(difficultyToDeck,null);
+        lastAction=null;
+        actionRepeats=0;
     }
 
     /**
-     * @return randomly one of: draw, explain, act
+     * @return name of the action of the next round (draw, explain or act), chosen by {@link #nextAction()}
      */
     public String getNextAction() {
-        String[] actions=new String[] {"draw","explain","act"};
-        return actions[random.nextInt(3)];
+        return nextAction().key;
+    }
+
+    /**
+     * @return action chosen for the current round, or null if none was chosen since the game started
+     */
+    public Action getCurrentAction() {
+        return lastAction;
+    }
+
+    /**
+     * Chooses the action of the next round according to the weights of the configuration.
+     * @return the chosen action
+     */
+    public Action nextAction() {
+        Action action=config.nextAction(random,lastAction,actionRepeats);
+        actionRepeats=action==lastAction ? actionRepeats+1 : 1;
+        lastAction=action;
+        return action;
+    }
+
+    /**
+     * Restricts the words drawn from now on. The matching words of each difficulty are found once, when a word of
+     * that difficulty is drawn for the first time.
+     * @param filter words the game draws, or null for every word
+     */
+    public void setWordFilter(WordFilter filter) {
+        wordFilter=filter;
+        Arrays.fill(filteredIndex,null);
+        Arrays.fill(filteredList,null);
+    }
+
+    /**
+     * @return words the game draws, or null for every word
+     */
+    public WordFilter getWordFilter() {
+        return wordFilter;
+    }
+
+    /**
+     * @return the words of a difficulty accepted by the filter, found again only after the words were reloaded
+     * @throws IllegalArgumentException if the filter names a tag no word has
+     */
+    private WordList filteredList(Difficulty difficulty) {
+        WordIndex index=words.getIndex(difficulty);
+        if(filteredIndex[difficulty.index()]!=index) {
+            checkTags(index);
+            filteredList[difficulty.index()]=index.filter(wordFilter);
+            filteredIndex[difficulty.index()]=index;
+        }
+        return filteredList[difficulty.index()];
     }
 
     /**
-     * Sets the word to be guessed in the new round.
-     * @param difficulty easy, medium or hard
+     * Sets the word to be guessed in the new round. A word is not repeated until every word of that difficulty was used.
+     * Waits only if the words of that difficulty are still being loaded.
+     * @param difficulty name of a configured difficulty
      */
     public void startRound(String difficulty) {
+        startRound(config.difficulty(difficulty));
+    }
+
+    /**
+     * Sets the word to be guessed in the new round. A word is not repeated until every word of that difficulty was used.
+     * Waits only if the words of that difficulty are still being loaded. After the words were reloaded,
+     * drawing starts over with the new list. With a word filter, only the matching words are drawn.
+     * @param difficulty difficulty of the word
+     * @throws IllegalArgumentException if no word of that difficulty matches the filter, or the filter names an unknown tag
+     */
+    public void startRound(Difficulty difficulty) {
+        long start=GameMetrics.start();
+        WordList list;
+        if(wordFilter==null) {
+            list=words.get(difficulty);
+        }
+        else {
+            list=filteredList(difficulty);
+            if(list.size()==0) {
+                throw new IllegalArgumentException("No "+difficulty.label+" word matches the word filter.");
+            }
+        }
+        WordSelector deck=difficultyToDeck[difficulty.index()];
+        if(deck==null || deckToList[difficulty.index()]!=list) {
+            deck=stats!=null ? new WeightedWordDeck(list,stats,config.getTargetRate(),random) : new WordDeck(list.size(),random);
+            difficultyToDeck[difficulty.index()]=deck;
+            deckToList[difficulty.index()]=list;
+        }
+        applyRound(difficulty,list.get(deck.draw()));
+        GameMetrics.stop("startRound",start);
+    }
+
+    /**
+     * Rejects the tags of the filter that no list has, most likely misspelled, instead of silently matching no word
+     * or excluding nothing. The other lists are only waited for if a tag is missing from the given one.
+     * @param index index of the list the filter is applied to
+     * @throws IllegalArgumentException if a tag of the filter is unknown
+     */
+    private void checkTags(WordIndex index) {
+        TreeSet<String> unknown=new TreeSet<>(wordFilter.getTags());
+        unknown.addAll(wordFilter.getExcludedTags());
+        unknown.removeAll(index.getTags());
+        for(Difficulty difficulty:config.getDifficulties()) {
+            if(unknown.isEmpty()) {
+                return;
+            }
+            unknown.removeAll(words.getIndex(difficulty).getTags());
+        }
+        if(!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown tags in the word filter: "+String.join(", ",unknown)+".");
+        }
+    }
+
+    /**
+     * Sets the difficulty and the word of the new round.
+     * @param difficulty difficulty of the word
+     * @param word the word to be guessed
+     */
+    void applyRound(Difficulty difficulty,String word) {
         currentDifficulty=difficulty;
-        ArrayList<String> list=difficultyToList.get(currentDifficulty);
-        currentWord=list.get(random.nextInt(list.size()));
+        currentWord=word;
+        roundStart=GameMetrics.start();
+        timer.reset();
+        if(journal!=null) {
+            journal.startRound(difficulty.key,word);
+        }
+        publish(GameEvent.Type.ROUND_STARTED,currentTeam,difficulty,difficultyToPoint[difficulty.index()],false);
     }
 
     /**
      * @return team names and scores written on separate lines
      */
     public String getScoreBoard() {
-        String scores="";
-        ArrayList<Team> sortedTeams=new ArrayList<>();
-        for(Team t:teams) {
-            sortedTeams.add(t);
-        }
-        sortedTeams.sort(Comparator.comparingInt(team -> -team.score));
-        for(Team t:sortedTeams) {
-            scores+=t.name+": "+t.score+"\n";
-        }
-        return scores;
+        long start=GameMetrics.start();
+        String board=scoreBoard.render();
+        GameMetrics.stop("getScoreBoard",start);
+        return board;
+    }
+
+    /**
+     * @return teams ranked by score, supporting top-k and rank queries
+     */
+    public ScoreBoard getRanking() {
+        return scoreBoard;
     }
 
     /**
@@ -176,15 +464,21 @@ public class Controller {
         if(currentTeam>=numberTeams) {
             currentTeam-=numberTeams;
         }
-        return teams.get(currentTeam).name;
+        if(journal!=null) {
+            journal.event(GameJournal.NEXT_TEAM);
+        }
+        return teams.name(currentTeam);
     }
 
     /**
      * @return name of the player that plays in the next round
      */
     public String getNextPlayer() {
-        teams.get(currentTeam).nextMember();
-        return teams.get(currentTeam).members.get(teams.get(currentTeam).currentMember);
+        String player=teams.nextMember(currentTeam);
+        if(journal!=null) {
+            journal.event(GameJournal.NEXT_PLAYER);
+        }
+        return player;
     }
 
     /**
@@ -195,36 +489,255 @@ public class Controller {
     }
 
     /**
-     * Changes the score of the team according to the number of points that word is worth.
+     * Starts the countdown of the current round. The time is measured by the controller, so with time-weighted
+     * scoring the points do not depend on when the user interface shows the countdown.
+     * @param seconds duration of the countdown
+     */
+    public void startTimer(int seconds) {
+        timer.start(seconds);
+    }
+
+    /**
+     * Stops the countdown until resumeTimer is called.
+     */
+    public void pauseTimer() {
+        timer.pause();
+    }
+
+    /**
+     * Lets the countdown run again after pauseTimer.
+     */
+    public void resumeTimer() {
+        timer.resume();
+    }
+
+    /**
+     * @return countdown of the current round
+     */
+    public RoundTimer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Changes the score of the team according to the number of points that word is worth. If the countdown was
+     * started, the points depend on the time it ran, according to the scoring of the configuration.
      */
     public void goodGuess() {
-        guessed=true;
-        teams.get(currentTeam).score+=difficultyToPoint.get(currentDifficulty);
+        int points=currentPoints();
+        if(timer.isStarted()) {
+            points=config.points(points,timer.elapsedNanos(),timer.limitNanos());
+        }
+        applyGoodGuess(points);
+        recordWord();
+    }
+
+    /**
+     * @return points of the difficulty of the current word
+     */
+    int currentPoints() {
+        return difficultyToPoint[currentDifficulty.index()];
+    }
+
+    /**
+     * Adds the result of the latest round to the word statistics. Corrections, undos and redos of that round are
+     * then added to the statistics too.
+     */
+    private void recordWord() {
+        if(stats!=null) {
+            int slot=history.latest();
+            history.count(slot);
+            stats.record(history.word(slot),history.guessed(slot),history.nanos(slot));
+        }
+    }
+
+    /**
+     * Adds or removes the result of a round in the word statistics and in the success rates of the metrics,
+     * if it was added to them.
+     * @param slot slot of the round in the history
+     * @param add true to add the result, false to remove it
+     */
+    private void countResult(int slot,boolean add) {
+        if(history.measured(slot)) {
+            GameMetrics.correct(teams.name(history.team(slot)),history.player(slot),history.guessed(slot),add ? 1 : -1);
+        }
+        if(stats==null || !history.counted(slot)) {
+            return;
+        }
+        if(add) {
+            stats.record(history.word(slot),history.guessed(slot),history.nanos(slot));
+        }
+        else {
+            stats.cancel(history.word(slot),history.guessed(slot),history.nanos(slot));
+        }
+    }
+
+    /**
+     * Records a guessed word.
+     * @param points points given for the word
+     */
+    void applyGoodGuess(int points) {
+        endRound(points,true);
+        addPoints(currentTeam,points);
+        publish(GameEvent.Type.GUESS_RECORDED,currentTeam,currentDifficulty,points,true);
+        if(journal!=null) {
+            journal.goodGuess(points);
+        }
     }
 
     /**
      * Does not change the score of the team according to the number of points that word is worth.
      */
     public void badGuess() {
-        guessed=false;
+        applyBadGuess();
+        recordWord();
+    }
+
+    /**
+     * Records a word that was not guessed.
+     */
+    void applyBadGuess() {
+        endRound(currentPoints(),false);
+        publish(GameEvent.Type.GUESS_RECORDED,currentTeam,currentDifficulty,currentPoints(),false);
+        if(journal!=null) {
+            journal.event(GameJournal.BAD_GUESS);
+        }
     }
 
     /**
      * Modifies the score by either adding or subtracting the number of points that word is worth.
+     * It applies to the latest round that was not undone, with the team and difficulty of that round.
      */
     public void changeGuess() {
-        int previousTeam=currentTeam-1;
-        if(previousTeam<0) {
-            previousTeam=teams.size()-1;
+        int slot=history.latest();
+        if(slot<0) {
+            return;
         }
-        if(guessed) {
-            guessed=false;
-            teams.get(previousTeam).score-=difficultyToPoint.get(currentDifficulty);
+        countResult(slot,false);
+        history.toggle(slot);
+        countResult(slot,true);
+        int points=history.points(slot);
+        addPoints(history.team(slot),history.guessed(slot) ? points : -points);
+        publish(GameEvent.Type.CORRECTION,history.team(slot),history.difficulty(slot),points,history.guessed(slot));
+        if(journal!=null) {
+            journal.event(GameJournal.CHANGE_GUESS);
         }
-        else {
-            guessed=true;
-            teams.get(previousTeam).score+=difficultyToPoint.get(currentDifficulty);
+    }
+
+    /**
+     * Cancels the result of the latest round that was not undone. The order of the teams and players is not changed.
+     * @return true if there was a round to undo
+     */
+    public boolean undo() {
+        int slot=history.undo();
+        if(slot<0) {
+            return false;
+        }
+        countResult(slot,false);
+        if(history.guessed(slot)) {
+            addPoints(history.team(slot),-history.points(slot));
+        }
+        publish(GameEvent.Type.UNDO,history.team(slot),history.difficulty(slot),history.points(slot),history.guessed(slot));
+        if(journal!=null) {
+            journal.event(GameJournal.UNDO);
+        }
+        return true;
+    }
+
+    /**
+     * Applies again the result of the latest undone round.
+     * @return true if there was a round to redo
+     */
+    public boolean redo() {
+        int slot=history.redo();
+        if(slot<0) {
+            return false;
+        }
+        countResult(slot,true);
+        if(history.guessed(slot)) {
+            addPoints(history.team(slot),history.points(slot));
+        }
+        publish(GameEvent.Type.REDO,history.team(slot),history.difficulty(slot),history.points(slot),history.guessed(slot));
+        if(journal!=null) {
+            journal.event(GameJournal.REDO);
+        }
+        return true;
+    }
+
+    /**
+     * Records the result of the round in the history, and how long it took in the metrics.
+     * @param points points the word is worth
+     * @param guessed true if the word was guessed
+     */
+    private void endRound(int points,boolean guessed) {
+        history.record(currentTeam,currentDifficulty,points,guessed,currentWord,timer.isStarted() ? timer.elapsedNanos() : -1);
+        if(roundStart!=0) {
+            int member=teams.currentMember(currentTeam);
+            String player=member<0 ? null : teams.member(currentTeam,member);
+            long nanos=timer.isStarted() ? timer.elapsedNanos() : System.nanoTime()-roundStart;
+            GameMetrics.round(currentDifficulty,lastAction,nanos,teams.name(currentTeam),player,guessed);
+            history.measure(history.latest(),player);
+            roundStart=0;
         }
+        timer.reset();
+    }
+
+    /**
+     * Changes the score of a team and tells the subscribers.
+     * @param team index of the team
+     * @param points change of the score
+     */
+    private void addPoints(int team,int points) {
+        scoreBoard.addPoints(team,points);
+        if(points!=0) {
+            publish(GameEvent.Type.SCORE_CHANGED,team,null,points,false);
+        }
+    }
+
+    /**
+     * Publishes an event if somebody is subscribed; otherwise nothing is created.
+     * @param type what happened
+     * @param team index of the team, or -1
+     * @param difficulty difficulty of the word, or null
+     * @param points points the word is worth, or the change of the score
+     * @param guessed whether the word is guessed after the event
+     */
+    private void publish(GameEvent.Type type,int team,Difficulty difficulty,int points,boolean guessed) {
+        if(!events.isActive()) {
+            return;
+        }
+        boolean known=team>=0 && team<teams.size();
+        events.publish(type,known ? team : -1,known ? teams.name(team) : null,difficulty==null ? null : difficulty.key,points,known ? teams.score(team) : 0,guessed);
+    }
+
+    /**
+     * Subscribes to the events of this game: teams added, rounds started, guesses, corrections and score changes.
+     * Events are delivered on other threads; a subscriber that does not keep up misses events instead of slowing
+     * the game down.
+     * @param subscriber receives the events that happen from now on
+     */
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        events.subscribe(subscriber);
+    }
+
+    /**
+     * @return the publisher of the events of this game
+     */
+    public GameEventPublisher getEvents() {
+        return events;
+    }
+
+    /**
+     * @return true if there is a round that can be undone
+     */
+    public boolean canUndo() {
+        return history.undoable()>0;
+    }
+
+    /**
+     * @return true if there is an undone round that can be applied again
+     */
+    public boolean canRedo() {
+        return history.redoable()>0;
     }
 
     /**
@@ -233,4 +746,127 @@ public class Controller {
     public int getTeamOrder() {
         return currentTeam;
     }
+
+    /**
+     * @return name of the team playing the current round, or null if the game has not started
+     */
+    public String getCurrentTeamName() {
+        if(!gameCanStart() || currentTeam<0 || currentTeam>=teams.size()) {
+            return null;
+        }
+        return teams.name(currentTeam);
+    }
+
+    /**
+     * @return name of the player playing the current round, or null if no player was chosen yet
+     */
+    public String getCurrentPlayerName() {
+        if(getCurrentTeamName()==null || teams.currentMember(currentTeam)<0) {
+            return null;
+        }
+        return teams.member(currentTeam,teams.currentMember(currentTeam));
+    }
+
+    /**
+     * Restores the game saved in the directory (snapshot and the events logged after it), then saves every
+     * later change there. It should be called on a new controller, before the game is played.
+     * @param directory directory of the saved game, created if needed
+     * @return true if a saved game was restored
+     * @throws IOException if the saved game cannot be read or the directory cannot be written
+     */
+    public boolean openJournal(Path directory) throws IOException {
+        GameJournal opened=new GameJournal(directory);
+        boolean restored=opened.attach(this);
+        journal=opened;
+        return restored;
+    }
+
+    /**
+     * Saves the remaining changes and stops saving the game.
+     * @throws IOException if the changes cannot be written
+     */
+    public void closeJournal() throws IOException {
+        if(journal!=null) {
+            journal.close();
+            journal=null;
+        }
+    }
+
+    /**
+     * Writes everything needed to restore the game, used for snapshots.
+     * @param out destination of the state
+     * @throws IOException if the state cannot be written
+     */
+    void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(numberTeams);
+        out.writeInt(currentTeam);
+        out.writeUTF(currentDifficulty==null ? "" : currentDifficulty.key);
+        out.writeUTF(currentWord==null ? "" : currentWord);
+        out.writeInt(teams.size());
+        for(int team=0;team<teams.size();team++) {
+            out.writeUTF(teams.name(team));
+            out.writeInt(teams.score(team));
+            out.writeInt(teams.currentMember(team));
+            out.writeInt(teams.memberCount(team));
+            for(int member=0;member<teams.memberCount(team);member++) {
+                out.writeUTF(teams.member(team,member));
+            }
+        }
+        int rounds=history.undoable()+history.redoable();
+        out.writeInt(rounds);
+        out.writeInt(history.redoable());
+        for(int i=0;i<rounds;i++) {
+            int slot=history.slot(i);
+            out.writeInt(history.team(slot));
+            out.writeUTF(history.difficulty(slot).key);
+            out.writeInt(history.points(slot));
+            out.writeBoolean(history.guessed(slot));
+        }
+    }
+
+    /**
+     * Replaces the game with the state written by writeState.
+     * @param in source of the state
+     * @throws IOException if the state cannot be read
+     */
+    void readState(DataInputStream in) throws IOException {
+        numberTeams=in.readInt();
+        currentTeam=in.readInt();
+        String difficulty=in.readUTF();
+        currentWord=in.readUTF();
+        currentDifficulty=null;
+        if(difficulty.isEmpty()) {
+            currentWord=null;
+        }
+        else {
+            currentDifficulty=config.difficulty(difficulty);
+        }
+        int count=in.readInt();
+        teams=new Teams(count);
+        teamsByName=new HashMap<>();
+        scoreBoard=new ScoreBoard(teams);
+        for(int i=0;i<count;i++) {
+            String name=in.readUTF();
+            int score=in.readInt();
+            int currentMember=in.readInt();
+            int size=in.readInt();
+            ArrayList<String> members=new ArrayList<>(size);
+            for(int j=0;j<size;j++) {
+                members.add(in.readUTF());
+            }
+            int team=teams.add(name,members);
+            teams.restore(team,score,currentMember);
+            teamsByName.put(name,team);
+            scoreBoard.add(team);
+        }
+        history.clear();
+        int rounds=in.readInt();
+        int redoable=in.readInt();
+        for(int i=0;i<rounds;i++) {
+            history.record(in.readInt(),config.difficulty(in.readUTF()),in.readInt(),in.readBoolean());
+        }
+        for(int i=0;i<redoable;i++) {
+            history.undo();
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package controller;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A countdown running on a {@link CountdownScheduler}. Pausing keeps the part of the current second that has
+ * already passed, so resuming continues exactly where the countdown stopped.
+ */
+public class Countdown {
+
+    /**
+     * Receives the number of seconds left.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void tick(int secondsLeft);
+    }
+
+    private static final long SECOND=TimeUnit.SECONDS.toNanos(1);
+
+    private final ScheduledExecutorService executor;
+    private final Listener listener;
+    private int secondsLeft;
+    private ScheduledFuture<?> future;
+    private long nextTick;
+    private long delayLeft;
+    private boolean finished;
+    private int generation;
+
+    Countdown(ScheduledExecutorService executor,int seconds,Listener listener) {
+        this.executor=executor;
+        this.listener=listener;
+        secondsLeft=seconds;
+        delayLeft=0;
+    }
+
+    /**
+     * @param scheduled generation of the schedule calling this, ticks of an earlier schedule are ignored
+     */
+    private void tick(int scheduled) {
+        int seconds;
+        synchronized(this) {
+            if(finished||future==null||scheduled!=generation) {
+                return;
+            }
+            seconds=secondsLeft;
+            secondsLeft--;
+            nextTick=System.nanoTime()+SECOND;
+            if(secondsLeft<0) {
+                finished=true;
+                future.cancel(false);
+                future=null;
+            }
+        }
+        listener.tick(seconds);
+    }
+
+    /**
+     * Stops the countdown until it is resumed.
+     */
+    public synchronized void pause() {
+        if(future==null) {
+            return;
+        }
+        future.cancel(false);
+        future=null;
+        delayLeft=Math.max(0,nextTick-System.nanoTime());
+    }
+
+    /**
+     * Continues a paused countdown.
+     */
+    public synchronized void resume() {
+        if(future!=null||finished) {
+            return;
+        }
+        nextTick=System.nanoTime()+delayLeft;
+        int scheduled=++generation;
+        future=executor.scheduleAtFixedRate(() -> tick(scheduled),delayLeft,SECOND,TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the countdown for good.
+     */
+    public synchronized void cancel() {
+        finished=true;
+        if(future!=null) {
+            future.cancel(false);
+            future=null;
+        }
+    }
+
+    /**
+     * @return true if the countdown is paused
+     */
+    public synchronized boolean isPaused() {
+        return future==null&&!finished;
+    }
+
+    /**
+     * @return true if the countdown reached 0 or was cancelled
+     */
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return the value the next tick will show
+     */
+    public synchronized int getSecondsLeft() {
+        return secondsLeft;
+    }
+}
@@ -0,0 +1,50 @@
+package controller;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Runs any number of countdowns on a single shared thread, so starting a round does not create a new thread.
+ */
+public class CountdownScheduler {
+
+    private static CountdownScheduler shared;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Creates a scheduler with its own daemon thread.
+     */
+    public CountdownScheduler() {
+        ScheduledThreadPoolExecutor pool=new ScheduledThreadPoolExecutor(1,runnable -> {
+            Thread thread=new Thread(runnable,"countdown");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        executor=pool;
+    }
+
+    /**
+     * @return the scheduler shared by the whole application
+     */
+    public static synchronized CountdownScheduler getShared() {
+        if(shared==null) {
+            shared=new CountdownScheduler();
+        }
+        return shared;
+    }
+
+    /**
+     * Starts counting down immediately. The listener receives the starting value right away,
+     * then one value each second down to 0.
+     * @param seconds value the countdown starts from
+     * @param listener called on the scheduler thread with the number of seconds left
+     * @return the countdown, which can be paused, resumed or cancelled
+     */
+    public Countdown start(int seconds,Countdown.Listener listener) {
+        Countdown countdown=new Countdown(executor,seconds,listener);
+        countdown.resume();
+        return countdown;
+    }
+}
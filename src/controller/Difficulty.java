@@ -0,0 +1,55 @@
+package controller;
+
+/**
+ * A difficulty tier of the words, with the number of points a guessed word is worth and the file of its words.
+ * The tiers of a game come from its {@link GameConfig}; easy, medium and hard are used when nothing is configured.
+ * Each tier has an index (its position in the configuration), which is used to look it up in per-tier tables.
+ */
+public final class Difficulty {
+
+    public static final Difficulty EASY=new Difficulty(0,"easy","Easy",3,"easywords.txt");
+    public static final Difficulty MEDIUM=new Difficulty(1,"medium","Medium",4,"mediumwords.txt");
+    public static final Difficulty HARD=new Difficulty(2,"hard","Hard",5,"hardwords.txt");
+
+    private final int index;
+    /**
+     * Name used by the GUI, the word pack sections and the saved games.
+     */
+    public final String key;
+    /**
+     * Name shown to the players.
+     */
+    public final String label;
+    public final int points;
+    /**
+     * Text file containing the words, one per line.
+     */
+    public final String fileName;
+
+    /**
+     * @param index position of the tier in the configuration
+     * @param key name of the tier in files
+     * @param label name of the tier shown to the players
+     * @param points number of points a guessed word is worth
+     * @param fileName text file containing the words
+     */
+    public Difficulty(int index,String key,String label,int points,String fileName) {
+        this.index=index;
+        this.key=key;
+        this.label=label;
+        this.points=points;
+        this.fileName=fileName;
+    }
+
+    /**
+     * @return position of the tier in the configuration
+     */
+    public int index() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,191 @@
+package controller;
+
+import gui.CharadesException;
+import java.nio.file.Paths;
+
+/**
+ * One step of the game as seen by a user interface, such as adding a team or recording a guess.
+ * A command is immutable data: it can be queued, executed by the thread owning the {@link Controller} and sent to
+ * another process. Executing it performs every controller call of that step and returns the resulting
+ * {@link GameSnapshot}, so a user interface needs one round trip per user action.
+ */
+public final class GameCommand {
+
+    public enum Type {
+        /**
+         * Returns the current state. Starts the first round of a restored game whose teams were all added.
+         */
+        REFRESH,
+        NEW_GAME,
+        SET_NUMBER_TEAMS,
+        /**
+         * Adds a team, and starts the first round once every team was added.
+         */
+        ADD_TEAM,
+        /**
+         * Adds the teams of a roster file, and starts the first round once every team was added.
+         */
+        IMPORT_ROSTER,
+        START_ROUND,
+        START_TIMER,
+        PAUSE_TIMER,
+        RESUME_TIMER,
+        /**
+         * Records a guessed word and moves on to the next team, player and action.
+         */
+        GOOD_GUESS,
+        /**
+         * Records a word that was not guessed and moves on to the next team, player and action.
+         */
+        BAD_GUESS,
+        CHANGE_GUESS,
+        UNDO,
+        REDO
+    }
+
+    private static final GameCommand REFRESH=new GameCommand(Type.REFRESH,null,null,0);
+
+    public final Type type;
+    /**
+     * First text argument: number of teams, team name, roster file or difficulty.
+     */
+    public final String text;
+    /**
+     * Second text argument: team members, written on separate lines.
+     */
+    public final String members;
+    /**
+     * Number argument: seconds of the countdown.
+     */
+    public final int number;
+
+    /**
+     * @param type what to do
+     * @param text first text argument, or null
+     * @param members team members, or null
+     * @param number number argument
+     */
+    public GameCommand(Type type,String text,String members,int number) {
+        this.type=type;
+        this.text=text;
+        this.members=members;
+        this.number=number;
+    }
+
+    /**
+     * @param type a command without arguments
+     * @return the command
+     */
+    public static GameCommand of(Type type) {
+        return type==Type.REFRESH ? REFRESH : new GameCommand(type,null,null,0);
+    }
+
+    /**
+     * @param type a command with a text argument
+     * @param text the argument
+     * @return the command
+     */
+    public static GameCommand of(Type type,String text) {
+        return new GameCommand(type,text,null,0);
+    }
+
+    /**
+     * @param teamName name of the team
+     * @param teamMembers names of team members, written on separate lines
+     * @return command adding the team
+     */
+    public static GameCommand addTeam(String teamName,String teamMembers) {
+        return new GameCommand(Type.ADD_TEAM,teamName,teamMembers,0);
+    }
+
+    /**
+     * @param seconds duration of the countdown
+     * @return command starting the countdown
+     */
+    public static GameCommand startTimer(int seconds) {
+        return new GameCommand(Type.START_TIMER,null,null,seconds);
+    }
+
+    /**
+     * Executes the command. It must be called by the thread owning the controller.
+     * @param controller the game
+     * @return the state of the game after the command
+     * @throws CharadesException if the game rejects the command; the game is not changed then
+     */
+    public GameSnapshot execute(Controller controller) throws CharadesException {
+        switch(type) {
+            case REFRESH:
+                if(controller.numberTeams>0 && controller.gameCanStart()) {
+                    if(controller.getCurrentPlayerName()==null) {
+                        nextTurn(controller);
+                    }
+                    else if(controller.getCurrentAction()==null) {
+                        controller.nextAction();
+                    }
+                }
+                break;
+            case NEW_GAME:
+                controller.startNewGame();
+                break;
+            case SET_NUMBER_TEAMS:
+                controller.setNumberTeams(text);
+                break;
+            case ADD_TEAM:
+                controller.addTeam(text,members);
+                startIfReady(controller);
+                break;
+            case IMPORT_ROSTER:
+                controller.importRoster(Paths.get(text));
+                startIfReady(controller);
+                break;
+            case START_ROUND:
+                try {
+                    controller.startRound(text);
+                } catch (IllegalArgumentException e) {
+                    throw new CharadesException(e.getMessage());
+                }
+                break;
+            case START_TIMER:
+                controller.startTimer(number);
+                break;
+            case PAUSE_TIMER:
+                controller.pauseTimer();
+                break;
+            case RESUME_TIMER:
+                controller.resumeTimer();
+                break;
+            case GOOD_GUESS:
+                controller.goodGuess();
+                nextTurn(controller);
+                break;
+            case BAD_GUESS:
+                controller.badGuess();
+                nextTurn(controller);
+                break;
+            case CHANGE_GUESS:
+                controller.changeGuess();
+                break;
+            case UNDO:
+                controller.undo();
+                break;
+            case REDO:
+                controller.redo();
+                break;
+            default:
+                throw new CharadesException("Unknown command "+type+".");
+        }
+        return GameSnapshot.of(controller);
+    }
+
+    private static void startIfReady(Controller controller) {
+        if(controller.gameCanStart()) {
+            nextTurn(controller);
+        }
+    }
+
+    private static void nextTurn(Controller controller) {
+        controller.getNextTeam();
+        controller.getNextPlayer();
+        controller.nextAction();
+    }
+}
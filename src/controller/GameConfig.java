@@ -0,0 +1,314 @@
+package controller;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Rules of the game: the difficulty tiers (with their points and word files) and how the action of each round is
+ * chosen. It is read from a properties file:
+ * <pre>
+ * difficulties=easy,medium,hard
+ * difficulty.easy.label=Easy
+ * difficulty.easy.points=3
+ * difficulty.easy.words=easywords.txt
+ * action.draw.weight=1
+ * action.explain.weight=1
+ * action.act.weight=1
+ * action.maxRepeat=0
+ * scoring=flat
+ * scoring.minimumShare=0.5
+ * selection=uniform
+ * selection.targetRate=0.6
+ * filter.maxWords=2
+ * </pre>
+ * Actions are chosen randomly in proportion to their weights (0 disables an action). When action.maxRepeat is
+ * positive, the same action is never chosen more than that many times in a row.
+ * With linear scoring, a word guessed at the end of the countdown is worth scoring.minimumShare of its points
+ * (see {@link Scoring}).
+ * With adaptive selection, words are drawn according to their results in previous games so that the teams guess
+ * about selection.targetRate of them (see {@link WeightedWordDeck}).
+ * The filter.* entries restrict the words every game draws (see {@link WordFilter}).
+ * A configuration is immutable, so it can be shared between games.
+ */
+public class GameConfig {
+
+    /**
+     * Configuration file read by {@link #getDefault()}.
+     */
+    static final String CONFIG_FILE="game.properties";
+
+    private static GameConfig defaultConfig;
+
+    private final Difficulty[] difficulties;
+    private final int[] cumulativeWeights=new int[Action.values().length];
+    private final Action[] actions=Action.values();
+    private final int maxRepeat;
+    private final Scoring scoring;
+    private final double minimumShare;
+    private final boolean adaptive;
+    private final double targetRate;
+    private final WordFilter wordFilter;
+
+    /**
+     * Uses easy, medium and hard, chooses each action with the same probability, gives flat points and draws every
+     * word uniformly.
+     */
+    public GameConfig() {
+        this(new Difficulty[] {Difficulty.EASY,Difficulty.MEDIUM,Difficulty.HARD},new int[] {1,1,1},0,Scoring.FLAT,1,false,0.6,null);
+    }
+
+    /**
+     * @param difficulties tiers, each with its position as index
+     * @param weights weight of each action, in the order of Action.values()
+     * @param maxRepeat maximum number of times an action can be chosen in a row, 0 for no limit
+     * @param scoring how the time of the guess changes the points
+     * @param minimumShare share of the points given at the end of the countdown, between 0 and 1
+     * @param adaptive true to draw words according to their results in previous games
+     * @param targetRate share of words the teams should guess with adaptive selection, between 0 and 1
+     * @param wordFilter words the games draw, or null for every word
+     */
+    public GameConfig(Difficulty[] difficulties,int[] weights,int maxRepeat,Scoring scoring,double minimumShare,boolean adaptive,double targetRate,
+                      WordFilter wordFilter) {
+        this.wordFilter=wordFilter;
+        if(targetRate<=0 || targetRate>=1) {
+            throw new IllegalArgumentException("The target rate should be between 0 and 1.");
+        }
+        this.adaptive=adaptive;
+        this.targetRate=targetRate;
+        if(minimumShare<0 || minimumShare>1) {
+            throw new IllegalArgumentException("The minimum share of the points should be between 0 and 1.");
+        }
+        this.scoring=scoring;
+        this.minimumShare=minimumShare;
+        if(difficulties.length==0) {
+            throw new IllegalArgumentException("At least one difficulty is required.");
+        }
+        for(int i=0;i<difficulties.length;i++) {
+            if(difficulties[i].index()!=i) {
+                throw new IllegalArgumentException("Difficulty "+difficulties[i].key+" should have index "+i+".");
+            }
+        }
+        this.difficulties=difficulties.clone();
+        int total=0;
+        for(int i=0;i<actions.length;i++) {
+            if(weights[i]<0) {
+                throw new IllegalArgumentException("The weight of an action cannot be negative.");
+            }
+            total+=weights[i];
+            cumulativeWeights[i]=total;
+        }
+        if(total==0) {
+            throw new IllegalArgumentException("At least one action needs a positive weight.");
+        }
+        int enabled=0;
+        for(int weight:weights) {
+            if(weight>0) {
+                enabled++;
+            }
+        }
+        this.maxRepeat=enabled>1 ? maxRepeat : 0;
+    }
+
+    /**
+     * @return the configuration of game.properties in the working directory, or the default rules if there is none
+     */
+    public static synchronized GameConfig getDefault() {
+        if(defaultConfig==null) {
+            Path file=Paths.get(CONFIG_FILE);
+            defaultConfig=new GameConfig();
+            if(Files.exists(file)) {
+                try {
+                    defaultConfig=load(file);
+                } catch (IOException | IllegalArgumentException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return defaultConfig;
+    }
+
+    /**
+     * Reads a configuration file. Missing entries get the default values.
+     * @param file properties file
+     * @return the configuration
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static GameConfig load(Path file) throws IOException {
+        Properties properties=new Properties();
+        try(Reader reader=Files.newBufferedReader(file,StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        GameConfig defaults=new GameConfig();
+        ArrayList<Difficulty> difficulties=new ArrayList<>();
+        for(String key:properties.getProperty("difficulties","easy,medium,hard").split(",")) {
+            key=key.trim();
+            if(key.isEmpty()) {
+                continue;
+            }
+            Difficulty builtIn=defaults.findDifficulty(key);
+            String label=properties.getProperty("difficulty."+key+".label",builtIn!=null ? builtIn.label : key);
+            int points=intProperty(properties,"difficulty."+key+".points",builtIn!=null ? builtIn.points : 1);
+            String words=properties.getProperty("difficulty."+key+".words",builtIn!=null ? builtIn.fileName : key+"words.txt");
+            difficulties.add(new Difficulty(difficulties.size(),key,label,points,words));
+        }
+        Action[] actions=Action.values();
+        int[] weights=new int[actions.length];
+        for(int i=0;i<actions.length;i++) {
+            weights[i]=intProperty(properties,"action."+actions[i].key+".weight",1);
+        }
+        String selection=properties.getProperty("selection","uniform").trim();
+        if(!selection.equals("uniform") && !selection.equals("adaptive")) {
+            throw new IllegalArgumentException("Unknown selection: "+selection);
+        }
+        return new GameConfig(difficulties.toArray(new Difficulty[0]),weights,intProperty(properties,"action.maxRepeat",0),
+                Scoring.of(properties.getProperty("scoring","flat").trim()),doubleProperty(properties,"scoring.minimumShare",0.5),
+                selection.equals("adaptive"),doubleProperty(properties,"selection.targetRate",0.6),WordFilter.load(properties));
+    }
+
+    static int intProperty(Properties properties,String key,int defaultValue) {
+        String value=properties.getProperty(key);
+        if(value==null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("An integer value is expected for "+key+".");
+        }
+    }
+
+    private static double doubleProperty(Properties properties,String key,double defaultValue) {
+        String value=properties.getProperty(key);
+        if(value==null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("A number is expected for "+key+".");
+        }
+    }
+
+    private Difficulty findDifficulty(String key) {
+        for(Difficulty difficulty:difficulties) {
+            if(difficulty.key.equals(key)) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the tiers, in the order they are shown
+     */
+    public List<Difficulty> getDifficulties() {
+        return Collections.unmodifiableList(Arrays.asList(difficulties));
+    }
+
+    /**
+     * @return number of tiers
+     */
+    public int difficultyCount() {
+        return difficulties.length;
+    }
+
+    /**
+     * @param index position of the tier
+     * @return the tier at that position
+     */
+    public Difficulty difficulty(int index) {
+        return difficulties[index];
+    }
+
+    /**
+     * @param key name of the tier
+     * @return the tier with that name
+     * @throws IllegalArgumentException if there is no such tier
+     */
+    public Difficulty difficulty(String key) {
+        Difficulty difficulty=findDifficulty(key);
+        if(difficulty==null) {
+            throw new IllegalArgumentException("Unknown difficulty: "+key);
+        }
+        return difficulty;
+    }
+
+    /**
+     * @return how the time of the guess changes the points
+     */
+    public Scoring getScoring() {
+        return scoring;
+    }
+
+    /**
+     * @return true if words are drawn according to their results in previous games
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return share of words the teams should guess with adaptive selection
+     */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * @return words the games draw by default, or null for every word
+     */
+    public WordFilter getWordFilter() {
+        return wordFilter;
+    }
+
+    /**
+     * @param points points of the difficulty
+     * @param elapsedNanos time the countdown ran before the word was guessed
+     * @param limitNanos duration of the countdown
+     * @return points given for the word
+     */
+    public int points(int points,long elapsedNanos,long limitNanos) {
+        return scoring.points(points,elapsedNanos,limitNanos,minimumShare);
+    }
+
+    /**
+     * Chooses the action of the next round, without allocating anything.
+     * @param random source of randomness
+     * @param previous action of the previous round, or null
+     * @param repeated number of times in a row the previous action was chosen
+     * @return the chosen action
+     */
+    public Action nextAction(Random random,Action previous,int repeated) {
+        int total=cumulativeWeights[actions.length-1];
+        int excluded=-1;
+        if(maxRepeat>0 && previous!=null && repeated>=maxRepeat) {
+            excluded=previous.ordinal();
+            total-=weight(excluded);
+        }
+        int value=random.nextInt(total);
+        for(int i=0;i<actions.length;i++) {
+            if(i==excluded) {
+                value+=weight(i);
+            }
+            if(value<cumulativeWeights[i]) {
+                return actions[i];
+            }
+        }
+        return actions[actions.length-1];
+    }
+
+    private int weight(int action) {
+        return action==0 ? cumulativeWeights[0] : cumulativeWeights[action]-cumulativeWeights[action-1];
+    }
+}
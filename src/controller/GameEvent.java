@@ -0,0 +1,109 @@
+package controller;
+
+/**
+ * Something that happened in a game, published to the subscribers of {@link Controller#subscribe}.
+ * Events are immutable and numbered in the order they happened; a gap in the numbers means that the subscriber
+ * was too slow and missed some events.
+ * The word to be guessed is never part of an event, so events can be shown to anyone.
+ */
+public final class GameEvent {
+
+    public enum Type {
+        /**
+         * Every team was removed.
+         */
+        NEW_GAME,
+        /**
+         * A team joined the game.
+         */
+        TEAM_ADDED,
+        /**
+         * A team received a word of the given difficulty.
+         */
+        ROUND_STARTED,
+        /**
+         * The result of a round: guessed or not, and the points the word was worth.
+         */
+        GUESS_RECORDED,
+        /**
+         * The result of the latest round was reversed.
+         */
+        CORRECTION,
+        /**
+         * The latest round was cancelled.
+         */
+        UNDO,
+        /**
+         * The latest cancelled round was applied again.
+         */
+        REDO,
+        /**
+         * The score of a team changed by the given number of points.
+         */
+        SCORE_CHANGED
+    }
+
+    public final long sequence;
+    public final Type type;
+    /**
+     * Index of the team concerned, or -1.
+     */
+    public final int team;
+    /**
+     * Name of the team concerned, or null.
+     */
+    public final String teamName;
+    /**
+     * Difficulty of the word, or null.
+     */
+    public final String difficulty;
+    /**
+     * Points the word is worth, or the change of the score for SCORE_CHANGED.
+     */
+    public final int points;
+    /**
+     * Score of the team after the event.
+     */
+    public final int score;
+    /**
+     * Whether the word was guessed, after the event.
+     */
+    public final boolean guessed;
+
+    GameEvent(long sequence,Type type,int team,String teamName,String difficulty,int points,int score,boolean guessed) {
+        this.sequence=sequence;
+        this.type=type;
+        this.team=team;
+        this.teamName=teamName;
+        this.difficulty=difficulty;
+        this.points=points;
+        this.score=score;
+        this.guessed=guessed;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder=new StringBuilder();
+        builder.append(sequence).append(' ').append(type);
+        if(teamName!=null) {
+            builder.append(' ').append(teamName);
+        }
+        if(difficulty!=null) {
+            builder.append(' ').append(difficulty);
+        }
+        switch(type) {
+            case GUESS_RECORDED:
+            case CORRECTION:
+            case UNDO:
+            case REDO:
+                builder.append(guessed ? " guessed " : " not guessed ").append(points);
+                break;
+            case SCORE_CHANGED:
+                builder.append(points>0 ? " +" : " ").append(points).append(" = ").append(score);
+                break;
+            default:
+                break;
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the events of one game to its subscribers without ever blocking the game.
+ * Every subscriber has a buffer of BUFFER_SIZE events and receives them on the delivery threads as fast as it
+ * requests them; when the buffer of a slow subscriber is full, new events are dropped for that subscriber only.
+ * No event is created while there are no subscribers.
+ */
+public class GameEventPublisher implements AutoCloseable {
+
+    /**
+     * Number of events waiting for each subscriber before events are dropped.
+     */
+    static final int BUFFER_SIZE=256;
+
+    /**
+     * Threads calling the subscribers, shared by every game.
+     */
+    private static final ExecutorService DELIVERY=Executors.newCachedThreadPool(runnable -> {
+        Thread thread=new Thread(runnable,"game-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SubmissionPublisher<GameEvent> publisher=new SubmissionPublisher<>(DELIVERY,BUFFER_SIZE);
+    private final AtomicLong dropped=new AtomicLong();
+    private long sequence;
+
+    /**
+     * @param subscriber receives the events that happen from now on, and onComplete when the game is closed
+     */
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * @return true if somebody receives the events
+     */
+    boolean isActive() {
+        return publisher.hasSubscribers();
+    }
+
+    /**
+     * Offers an event to every subscriber, without waiting for slow ones.
+     * @param type what happened
+     * @param team index of the team, or -1
+     * @param teamName name of the team, or null
+     * @param difficulty difficulty of the word, or null
+     * @param points points the word is worth, or the change of the score
+     * @param score score of the team after the event
+     * @param guessed whether the word is guessed after the event
+     */
+    void publish(GameEvent.Type type,int team,String teamName,String difficulty,int points,int score,boolean guessed) {
+        GameEvent event=new GameEvent(++sequence,type,team,teamName,difficulty,points,score,guessed);
+        publisher.offer(event,(subscriber,missed) -> {
+            dropped.incrementAndGet();
+            return false;
+        });
+    }
+
+    /**
+     * @return number of events that slow subscribers missed
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Completes every subscription once the events already offered are delivered.
+     */
+    @Override
+    public void close() {
+        publisher.close();
+    }
+}
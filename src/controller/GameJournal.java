@@ -0,0 +1,355 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps a game on disk so that it survives a crash or the window being closed.
+ * Every state change of the {@link Controller} is appended to game.log; writes are buffered and forced to disk in
+ * batches every {@code syncMillis} milliseconds, so at most that much play can be lost. After every
+ * {@code snapshotInterval} events the whole state is written to game.snapshot and the log is emptied, so recovery
+ * only replays the events since the last snapshot.
+ * <p>
+ * Each log record is: int payload length, long sequence number, byte type, payload, int CRC32 of the previous fields.
+ * A record that was only partly written when the process died fails its checksum and is dropped along with
+ * everything after it. Records whose sequence number is already covered by the snapshot are skipped, so a crash
+ * between writing a snapshot and emptying the log is harmless.
+ */
+public class GameJournal implements AutoCloseable {
+
+    static final byte SET_NUMBER_TEAMS=1;
+    static final byte ADD_TEAM=2;
+    static final byte START_ROUND=3;
+    static final byte BAD_GUESS=5;
+    static final byte CHANGE_GUESS=6;
+    static final byte NEXT_TEAM=7;
+    static final byte NEXT_PLAYER=8;
+    static final byte NEW_GAME=9;
+    static final byte UNDO=10;
+    static final byte REDO=11;
+    static final byte SCORED_GUESS=12;
+
+    private static final int SNAPSHOT_MAGIC=0x43485353;
+    private static final String LOG_FILE="game.log";
+    private static final String SNAPSHOT_FILE="game.snapshot";
+
+    private static final ScheduledExecutorService SYNC=new ScheduledThreadPoolExecutor(1,runnable -> {
+        Thread thread=new Thread(runnable,"journal-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final long syncMillis;
+    private final ByteArrayOutputStream record=new ByteArrayOutputStream(256);
+    private final DataOutputStream recordOut=new DataOutputStream(record);
+    private final CRC32 crc=new CRC32();
+    private Controller controller;
+    private FileChannel channel;
+    private DataOutputStream log;
+    private ScheduledFuture<?> syncTask;
+    private long sequence;
+    private int eventsSinceSnapshot;
+    private boolean dirty;
+
+    /**
+     * Snapshots every 1000 events and forces the log to disk every 100 milliseconds.
+     * @param directory directory of game.log and game.snapshot, created if needed
+     */
+    public GameJournal(Path directory) {
+        this(directory,1000,100);
+    }
+
+    /**
+     * @param directory directory of game.log and game.snapshot, created if needed
+     * @param snapshotInterval number of events after which a snapshot is taken
+     * @param syncMillis time between two forced writes of the log
+     */
+    public GameJournal(Path directory,int snapshotInterval,long syncMillis) {
+        this.directory=directory;
+        this.snapshotInterval=snapshotInterval;
+        this.syncMillis=syncMillis;
+    }
+
+    /**
+     * Restores the game saved in the directory into the controller, then starts recording its changes.
+     * @param controller game to restore and record; it should be freshly created
+     * @return true if a saved game was found
+     * @throws IOException if the files cannot be read or written
+     */
+    synchronized boolean attach(Controller controller) throws IOException {
+        Files.createDirectories(directory);
+        boolean restored=false;
+        Path snapshot=directory.resolve(SNAPSHOT_FILE);
+        if(Files.exists(snapshot)) {
+            try(DataInputStream in=new DataInputStream(Files.newInputStream(snapshot))) {
+                if(in.readInt()!=SNAPSHOT_MAGIC) {
+                    throw new IOException("Not a game snapshot: "+snapshot);
+                }
+                sequence=in.readLong();
+                controller.readState(in);
+                restored=true;
+            }
+        }
+        channel=FileChannel.open(directory.resolve(LOG_FILE),StandardOpenOption.CREATE,StandardOpenOption.READ,StandardOpenOption.WRITE);
+        long end=replay(controller);
+        if(end>=0) {
+            restored=true;
+        }
+        channel.truncate(Math.max(end,0));
+        channel.position(channel.size());
+        log=new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel),8192));
+        this.controller=controller;
+        syncTask=SYNC.scheduleWithFixedDelay(this::sync,syncMillis,syncMillis,TimeUnit.MILLISECONDS);
+        return restored;
+    }
+
+    /**
+     * Applies the valid records of the log to the controller.
+     * @return position after the last valid record, or -1 if the log is empty
+     */
+    private long replay(Controller controller) throws IOException {
+        long snapshotSequence=sequence;
+        long position=0;
+        InputStream stream=Channels.newInputStream(channel.position(0));
+        DataInputStream in=new DataInputStream(new BufferedInputStream(stream,8192));
+        while(true) {
+            byte[] payload;
+            long recordSequence;
+            byte type;
+            try {
+                int length=in.readInt();
+                if(length<0 || position+17+length>channel.size()) {
+                    break;
+                }
+                recordSequence=in.readLong();
+                type=in.readByte();
+                payload=new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update((int)(recordSequence>>>32));
+                crc.update((int)recordSequence);
+                crc.update(type);
+                crc.update(payload);
+                if(in.readInt()!=(int)crc.getValue()) {
+                    break;
+                }
+            } catch (EOFException e) {
+                break;
+            }
+            position+=17+payload.length;
+            if(recordSequence>snapshotSequence) {
+                apply(controller,type,new DataInputStream(new ByteArrayInputStream(payload)));
+                sequence=recordSequence;
+            }
+        }
+        return position==0 ? -1 : position;
+    }
+
+    private static void apply(Controller controller,byte type,DataInputStream in) throws IOException {
+        switch(type) {
+            case SET_NUMBER_TEAMS:
+                controller.applyNumberTeams(in.readInt());
+                break;
+            case ADD_TEAM:
+                String name=in.readUTF();
+                int count=in.readInt();
+                ArrayList<String> members=new ArrayList<>(count);
+                for(int i=0;i<count;i++) {
+                    members.add(in.readUTF());
+                }
+                controller.registerTeam(name,members);
+                break;
+            case START_ROUND:
+                controller.applyRound(controller.getConfig().difficulty(in.readUTF()),in.readUTF());
+                break;
+            case SCORED_GUESS:
+                controller.applyGoodGuess(in.readInt());
+                break;
+            case BAD_GUESS:
+                controller.applyBadGuess();
+                break;
+            case CHANGE_GUESS:
+                controller.changeGuess();
+                break;
+            case NEXT_TEAM:
+                controller.getNextTeam();
+                break;
+            case NEXT_PLAYER:
+                controller.getNextPlayer();
+                break;
+            case NEW_GAME:
+                controller.startNewGame();
+                break;
+            case UNDO:
+                controller.undo();
+                break;
+            case REDO:
+                controller.redo();
+                break;
+            default:
+                throw new IOException("Unknown event type "+type+" in the game log.");
+        }
+    }
+
+    //recording
+
+    synchronized void setNumberTeams(int number) {
+        try {
+            recordOut.writeInt(number);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(SET_NUMBER_TEAMS);
+    }
+
+    synchronized void addTeam(String name,List<String> members) {
+        try {
+            recordOut.writeUTF(name);
+            recordOut.writeInt(members.size());
+            for(String member:members) {
+                recordOut.writeUTF(member);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(ADD_TEAM);
+    }
+
+    synchronized void startRound(String difficulty,String word) {
+        try {
+            recordOut.writeUTF(difficulty);
+            recordOut.writeUTF(word);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(START_ROUND);
+    }
+
+    /**
+     * Records a guessed word with the points it was given, which may depend on the time of the guess.
+     * @param points points given for the word
+     */
+    synchronized void goodGuess(int points) {
+        try {
+            recordOut.writeInt(points);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        append(SCORED_GUESS);
+    }
+
+    /**
+     * Records an event without payload.
+     * @param type BAD_GUESS, CHANGE_GUESS, UNDO, REDO, NEXT_TEAM, NEXT_PLAYER or NEW_GAME
+     */
+    synchronized void event(byte type) {
+        append(type);
+    }
+
+    /**
+     * Writes the record built in recordOut to the log buffer, and takes a snapshot if it is due.
+     */
+    private void append(byte type) {
+        if(log==null) {
+            record.reset();
+            return;
+        }
+        try {
+            sequence++;
+            byte[] payload=record.toByteArray();
+            record.reset();
+            crc.reset();
+            crc.update((int)(sequence>>>32));
+            crc.update((int)sequence);
+            crc.update(type);
+            crc.update(payload);
+            log.writeInt(payload.length);
+            log.writeLong(sequence);
+            log.writeByte(type);
+            log.write(payload);
+            log.writeInt((int)crc.getValue());
+            dirty=true;
+            eventsSinceSnapshot++;
+            if(eventsSinceSnapshot>=snapshotInterval) {
+                snapshot();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("The game could not be saved.",e);
+        }
+    }
+
+    /**
+     * Writes the whole state of the game to game.snapshot and empties the log.
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized void snapshot() throws IOException {
+        Path temporary=directory.resolve(SNAPSHOT_FILE+".tmp");
+        try(FileChannel snapshotChannel=FileChannel.open(temporary,StandardOpenOption.CREATE,StandardOpenOption.WRITE,StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out=new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(snapshotChannel),8192));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(sequence);
+            controller.writeState(out);
+            out.flush();
+            snapshotChannel.force(true);
+        }
+        Files.move(temporary,directory.resolve(SNAPSHOT_FILE),StandardCopyOption.REPLACE_EXISTING,StandardCopyOption.ATOMIC_MOVE);
+        log.flush();
+        channel.truncate(0);
+        channel.force(true);
+        dirty=false;
+        eventsSinceSnapshot=0;
+    }
+
+    /**
+     * Forces the buffered records to disk; called periodically so that many events share one fsync.
+     */
+    private synchronized void sync() {
+        if(!dirty || log==null) {
+            return;
+        }
+        try {
+            log.flush();
+            channel.force(false);
+            dirty=false;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Forces the remaining records to disk and stops recording.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(log==null) {
+            return;
+        }
+        syncTask.cancel(false);
+        log.flush();
+        channel.force(false);
+        channel.close();
+        log=null;
+    }
+}
@@ -0,0 +1,199 @@
+package controller;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Measurements of every game of the process: duration of the controller operations, time until the guess of each
+ * round by difficulty and action, and guessed words of each team and player.
+ * <p>
+ * Metrics are disabled unless the system property charades.metrics is true or they are enabled through JMX;
+ * while disabled, instrumented code only reads one volatile flag. They are published over JMX as
+ * charades:type=GameMetrics and can be written to a file.
+ */
+public class GameMetrics implements GameMetricsMXBean {
+
+    private static final double NANOS_PER_MILLI=1e6;
+    private static final double NANOS_PER_SECOND=1e9;
+
+    private static final GameMetrics INSTANCE=new GameMetrics();
+    private static volatile boolean enabled=Boolean.getBoolean("charades.metrics");
+    private static boolean registered;
+
+    private final ConcurrentHashMap<String,LatencyHistogram> operations=new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String,LatencyHistogram> rounds=new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String,LongAdder[]> results=new ConcurrentHashMap<>();
+
+    private GameMetrics() {
+    }
+
+    /**
+     * @return the metrics of the process, registered over JMX
+     */
+    public static synchronized GameMetrics get() {
+        if(!registered) {
+            registered=true;
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,new ObjectName("charades:type=GameMetrics"));
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * @return true if measurements are recorded
+     */
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing an operation.
+     * @return the current time, or 0 if metrics are disabled
+     */
+    static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the duration of an operation started with start().
+     * @param operation name of the operation
+     * @param start value returned by start()
+     */
+    static void stop(String operation,long start) {
+        if(start!=0) {
+            INSTANCE.operations.computeIfAbsent(operation,key -> new LatencyHistogram()).record(System.nanoTime()-start);
+        }
+    }
+
+    /**
+     * Records the end of a round.
+     * @param difficulty difficulty of the word
+     * @param action how the word was presented, or null
+     * @param nanos time from the start of the round until the result
+     * @param team name of the team
+     * @param player name of the player, or null
+     * @param guessed true if the word was guessed
+     */
+    static void round(Difficulty difficulty,Action action,long nanos,String team,String player,boolean guessed) {
+        if(!enabled) {
+            return;
+        }
+        INSTANCE.rounds.computeIfAbsent(difficulty.key+"/"+action,key -> new LatencyHistogram()).record(nanos);
+        INSTANCE.result(team,player,guessed,1);
+    }
+
+    /**
+     * Adds or removes the result of a round recorded earlier, when it is corrected, undone or redone, so that the
+     * success rates agree with the scores. The duration of the round is kept.
+     * @param team name of the team
+     * @param player name of the player, or null
+     * @param guessed the result
+     * @param rounds 1 to add the result, -1 to remove it
+     */
+    static void correct(String team,String player,boolean guessed,int rounds) {
+        INSTANCE.result(team,player,guessed,rounds);
+    }
+
+    private void result(String team,String player,boolean guessed,int rounds) {
+        result(team,guessed,rounds);
+        if(player!=null) {
+            result(team+"/"+player,guessed,rounds);
+        }
+    }
+
+    private void result(String key,boolean guessed,int rounds) {
+        results.computeIfAbsent(key,k -> new LongAdder[] {new LongAdder(),new LongAdder()})[guessed ? 0 : 1].add(rounds);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean value) {
+        enabled=value;
+    }
+
+    @Override
+    public Map<String,Long> getOperationCounts() {
+        TreeMap<String,Long> counts=new TreeMap<>();
+        operations.forEach((name,histogram) -> counts.put(name,histogram.count()));
+        return counts;
+    }
+
+    @Override
+    public Map<String,Double> getOperationP99Millis() {
+        TreeMap<String,Double> durations=new TreeMap<>();
+        operations.forEach((name,histogram) -> durations.put(name,histogram.percentile(99)/NANOS_PER_MILLI));
+        return durations;
+    }
+
+    @Override
+    public Map<String,Double> getMeanRoundSeconds() {
+        TreeMap<String,Double> durations=new TreeMap<>();
+        rounds.forEach((name,histogram) -> durations.put(name,histogram.mean()/NANOS_PER_SECOND));
+        return durations;
+    }
+
+    @Override
+    public Map<String,Double> getSuccessRates() {
+        TreeMap<String,Double> rates=new TreeMap<>();
+        results.forEach((name,counts) -> rates.put(name,rate(counts)));
+        return rates;
+    }
+
+    private static double rate(LongAdder[] counts) {
+        long guessed=counts[0].sum();
+        long total=guessed+counts[1].sum();
+        return total==0 ? 0 : (double)guessed/total;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report=new StringBuilder();
+        report.append(String.format("%-24s %8s %10s %10s %10s %10s%n","operation","count","mean ms","p50 ms","p99 ms","max ms"));
+        for(Map.Entry<String,LatencyHistogram> entry:new TreeMap<>(operations).entrySet()) {
+            append(report,entry.getKey(),entry.getValue(),NANOS_PER_MILLI,99);
+        }
+        report.append(String.format("%n%-24s %8s %10s %10s %10s %10s%n","round","count","mean s","p50 s","p90 s","max s"));
+        for(Map.Entry<String,LatencyHistogram> entry:new TreeMap<>(rounds).entrySet()) {
+            append(report,entry.getKey(),entry.getValue(),NANOS_PER_SECOND,90);
+        }
+        report.append(String.format("%n%-24s %8s %8s %8s%n","team/player","guessed","missed","rate"));
+        for(Map.Entry<String,LongAdder[]> entry:new TreeMap<>(results).entrySet()) {
+            LongAdder[] counts=entry.getValue();
+            report.append(String.format("%-24s %8d %8d %7.1f%%%n",entry.getKey(),counts[0].sum(),counts[1].sum(),100*rate(counts)));
+        }
+        return report.toString();
+    }
+
+    private static void append(StringBuilder report,String name,LatencyHistogram histogram,double unit,double percentile) {
+        report.append(String.format("%-24s %8d %10.3f %10.3f %10.3f %10.3f%n",name,histogram.count(),histogram.mean()/unit,
+                histogram.percentile(50)/unit,histogram.percentile(percentile)/unit,histogram.max()/unit));
+    }
+
+    @Override
+    public void dump(String fileName) throws IOException {
+        Files.write(Paths.get(fileName),getReport().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void reset() {
+        operations.clear();
+        rounds.clear();
+        results.clear();
+    }
+}
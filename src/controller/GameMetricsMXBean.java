@@ -0,0 +1,57 @@
+package controller;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Management interface of {@link GameMetrics}, registered as charades:type=GameMetrics.
+ */
+public interface GameMetricsMXBean {
+
+    /**
+     * @return true if measurements are recorded
+     */
+    boolean isEnabled();
+
+    /**
+     * @param enabled true to record measurements, false to make instrumentation free
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return number of calls of each timed operation
+     */
+    Map<String,Long> getOperationCounts();
+
+    /**
+     * @return 99th percentile of the duration of each timed operation, in milliseconds
+     */
+    Map<String,Double> getOperationP99Millis();
+
+    /**
+     * @return average time until the guess of each difficulty/action, in seconds
+     */
+    Map<String,Double> getMeanRoundSeconds();
+
+    /**
+     * @return share of guessed words of each team and team/player
+     */
+    Map<String,Double> getSuccessRates();
+
+    /**
+     * @return every measurement, as a readable table
+     */
+    String getReport();
+
+    /**
+     * Writes the report to a file.
+     * @param fileName name of the file
+     * @throws IOException if the file cannot be written
+     */
+    void dump(String fileName) throws IOException;
+
+    /**
+     * Forgets every measurement.
+     */
+    void reset();
+}
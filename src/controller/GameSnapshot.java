@@ -0,0 +1,165 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Everything a user interface shows about a game at one moment. A snapshot is immutable, so it can be built by the
+ * thread running the game and rendered by another one.
+ */
+public final class GameSnapshot {
+
+    /**
+     * Number of teams of the game, 0 before it was set.
+     */
+    public final int numberTeams;
+    /**
+     * Number of the team to be added next, while teams are being added.
+     */
+    public final int teamOrder;
+    /**
+     * True once every team was added.
+     */
+    public final boolean gameCanStart;
+    /**
+     * Team, player and action of the current round, or null before the first round.
+     */
+    public final String team;
+    public final String player;
+    public final String action;
+    /**
+     * Word of the current round and its difficulty, or null before the first round.
+     */
+    public final String word;
+    public final String difficulty;
+    public final boolean canUndo;
+    public final boolean canRedo;
+    /**
+     * Names and scores of the teams, best team first. Snapshots of an unchanged scoreboard share the same arrays.
+     */
+    private final String[] rankedTeams;
+    private final int[] rankedScores;
+    /**
+     * Names and labels of the difficulties, in the order they are shown.
+     */
+    private final String[] difficultyKeys;
+    private final String[] difficultyLabels;
+
+    /**
+     * @param numberTeams number of teams of the game
+     * @param teamOrder number of the team to be added next
+     * @param gameCanStart true once every team was added
+     * @param team team of the current round, or null
+     * @param player player of the current round, or null
+     * @param action action of the current round, or null
+     * @param word word of the current round, or null
+     * @param difficulty difficulty of the current word, or null
+     * @param canUndo true if a round can be undone
+     * @param canRedo true if an undone round can be applied again
+     * @param rankedTeams names of the teams, best team first; kept without a copy, so it must not be modified afterwards
+     * @param rankedScores scores of the teams, in the same order; kept without a copy either
+     * @param difficultyKeys names of the difficulties
+     * @param difficultyLabels labels of the difficulties, in the same order
+     */
+    public GameSnapshot(int numberTeams,int teamOrder,boolean gameCanStart,String team,String player,String action,String word,
+                        String difficulty,boolean canUndo,boolean canRedo,String[] rankedTeams,int[] rankedScores,String[] difficultyKeys,
+                        String[] difficultyLabels) {
+        this.numberTeams=numberTeams;
+        this.teamOrder=teamOrder;
+        this.gameCanStart=gameCanStart;
+        this.team=team;
+        this.player=player;
+        this.action=action;
+        this.word=word;
+        this.difficulty=difficulty;
+        this.canUndo=canUndo;
+        this.canRedo=canRedo;
+        this.rankedTeams=rankedTeams;
+        this.rankedScores=rankedScores;
+        this.difficultyKeys=difficultyKeys.clone();
+        this.difficultyLabels=difficultyLabels.clone();
+    }
+
+    /**
+     * Takes a snapshot of a game. It must be called by the thread running the game.
+     * @param controller the game
+     * @return the current state of the game
+     */
+    public static GameSnapshot of(Controller controller) {
+        List<Difficulty> difficulties=controller.getConfig().getDifficulties();
+        String[] keys=new String[difficulties.size()];
+        String[] labels=new String[difficulties.size()];
+        for(Difficulty difficulty:difficulties) {
+            keys[difficulty.index()]=difficulty.key;
+            labels[difficulty.index()]=difficulty.label;
+        }
+        Action action=controller.getCurrentAction();
+        String player=controller.getCurrentPlayerName();
+        ScoreBoard ranking=controller.getRanking();
+        return new GameSnapshot(controller.numberTeams,controller.getTeamOrder(),controller.numberTeams>0 && controller.gameCanStart(),
+                controller.getCurrentTeamName(),player,player==null || action==null ? null : action.key,controller.currentWord,
+                controller.currentDifficulty==null ? null : controller.currentDifficulty.key,controller.canUndo(),controller.canRedo(),
+                ranking.rankedNames(),ranking.rankedScores(),keys,labels);
+    }
+
+    /**
+     * @return number of teams on the scoreboard
+     */
+    public int rankCount() {
+        return rankedTeams.length;
+    }
+
+    /**
+     * @param other another snapshot, or null
+     * @return true if both snapshots have the same teams with the same scores in the same order; O(1) when the
+     * scoreboard did not change between them
+     */
+    public boolean sameRanking(GameSnapshot other) {
+        if(other==null) {
+            return false;
+        }
+        if(rankedTeams==other.rankedTeams && rankedScores==other.rankedScores) {
+            return true;
+        }
+        return Arrays.equals(rankedScores,other.rankedScores) && Arrays.equals(rankedTeams,other.rankedTeams);
+    }
+
+    /**
+     * @param rank position on the scoreboard, starting from 0
+     * @return name of the team at that position
+     */
+    public String rankedTeam(int rank) {
+        return rankedTeams[rank];
+    }
+
+    /**
+     * @param rank position on the scoreboard, starting from 0
+     * @return score of the team at that position
+     */
+    public int rankedScore(int rank) {
+        return rankedScores[rank];
+    }
+
+    /**
+     * @return number of difficulties
+     */
+    public int difficultyCount() {
+        return difficultyKeys.length;
+    }
+
+    /**
+     * @param index position of the difficulty
+     * @return name of the difficulty, accepted by START_ROUND
+     */
+    public String difficultyKey(int index) {
+        return difficultyKeys[index];
+    }
+
+    /**
+     * @param index position of the difficulty
+     * @return name of the difficulty shown to the players
+     */
+    public String difficultyLabel(int index) {
+        return difficultyLabels[index];
+    }
+}
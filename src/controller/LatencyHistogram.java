@@ -0,0 +1,110 @@
+package controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Distribution of durations in nanoseconds, with a fixed amount of memory whatever the number of samples.
+ * Each power of two is split into 4 buckets, so percentiles are accurate to 25% from 1 ns up to centuries.
+ * Recording is lock-free and can happen on any thread while the histogram is read.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS=248;
+
+    private final AtomicLongArray counts=new AtomicLongArray(BUCKETS);
+    private final AtomicLong count=new AtomicLong();
+    private final AtomicLong total=new AtomicLong();
+    private final AtomicLong max=new AtomicLong();
+
+    /**
+     * @param nanos a duration
+     * @return index of the bucket containing that duration
+     */
+    static int bucket(long nanos) {
+        if(nanos<4) {
+            return (int)Math.max(nanos,0);
+        }
+        int exponent=63-Long.numberOfLeadingZeros(nanos);
+        return 4*(exponent-1)+(int)((nanos>>>(exponent-2))&3);
+    }
+
+    /**
+     * @param bucket index of a bucket
+     * @return smallest duration in that bucket
+     */
+    static long lowerBound(int bucket) {
+        if(bucket<4) {
+            return bucket;
+        }
+        int exponent=bucket/4+1;
+        return (long)(4+bucket%4)<<(exponent-2);
+    }
+
+    /**
+     * @param nanos duration of one sample
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(nanos));
+        count.incrementAndGet();
+        total.addAndGet(nanos);
+        long current;
+        while(nanos>(current=max.get()) && !max.compareAndSet(current,nanos)) {
+            // another thread recorded a sample meanwhile
+        }
+    }
+
+    /**
+     * @return number of samples
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * @return average duration in nanoseconds, or 0 without samples
+     */
+    public double mean() {
+        long samples=count.get();
+        return samples==0 ? 0 : (double)total.get()/samples;
+    }
+
+    /**
+     * @return longest duration in nanoseconds
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return duration in nanoseconds under which that percentage of samples are (upper bound of their bucket)
+     */
+    public long percentile(double percentile) {
+        long samples=count.get();
+        if(samples==0) {
+            return 0;
+        }
+        long rank=Math.max(1,(long)Math.ceil(samples*percentile/100));
+        long seen=0;
+        for(int i=0;i<BUCKETS;i++) {
+            seen+=counts.get(i);
+            if(seen>=rank) {
+                return i+1<BUCKETS ? Math.min(lowerBound(i+1)-1,max.get()) : max.get();
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Forgets every sample.
+     */
+    public void reset() {
+        for(int i=0;i<BUCKETS;i++) {
+            counts.set(i,0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+}
@@ -0,0 +1,63 @@
+package controller;
+
+import gui.CharadesException;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays a game of this process on a single thread of its own, so the thread submitting commands (for example the
+ * JavaFX thread) never waits for the game, its journal or its scoreboard. Only that thread uses the controller
+ * once the channel is created.
+ */
+public class LocalCommandChannel implements CommandChannel {
+
+    private final Controller controller;
+    private final ExecutorService writer=Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread=new Thread(runnable,"controller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param controller the game, not used by any other thread afterwards
+     */
+    public LocalCommandChannel(Controller controller) {
+        this.controller=controller;
+    }
+
+    @Override
+    public CompletableFuture<GameSnapshot> submit(GameCommand command) {
+        CompletableFuture<GameSnapshot> result=new CompletableFuture<>();
+        writer.execute(() -> {
+            try {
+                result.complete(command.execute(controller));
+            } catch (CharadesException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Executes the commands already submitted, then closes the journal of the game.
+     */
+    @Override
+    public void close() {
+        writer.execute(() -> {
+            try {
+                controller.closeJournal();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10,TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
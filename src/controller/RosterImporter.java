@@ -0,0 +1,422 @@
+package controller;
+
+import gui.CharadesException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+/**
+ * Reads a roster of teams from a CSV or JSON file in a single streaming pass.
+ * <p>
+ * CSV (any file not ending in .json): each row is a team name followed by one or more member names,
+ * e.g. {@code Owls,Anna,Bob}. Like in {@link Controller#addTeam(String, String)}, two teams cannot have the same
+ * name: a row repeating the name of an earlier team is reported and skipped. Fields may be quoted with double quotes.
+ * A first row made of "team" followed by "member" or "player" fields (e.g. {@code team,member1,member2}) is treated
+ * as a header, so a team named "Team" is still imported. The header {@code team,player} (or {@code team,member})
+ * declares one player per row instead: rows with the same team name are then merged.
+ * Empty rows are ignored.
+ * <p>
+ * JSON: an array of objects with a "name" string and a "members" array of strings,
+ * e.g. {@code [{"name":"Owls","members":["Anna","Bob"]}]}. Other keys are ignored.
+ */
+public class RosterImporter {
+
+    /**
+     * One team read from the roster.
+     */
+    public static class Entry {
+        public final String name;
+        public final ArrayList<String> members=new ArrayList<>();
+        /**
+         * Line of the file on which the team starts.
+         */
+        public final int line;
+
+        Entry(String name,int line) {
+            this.name=name;
+            this.line=line;
+        }
+    }
+
+    private final Reader reader;
+    private final ArrayList<String> errors;
+    private int line=1;
+    private int peeked=-2;
+
+    private RosterImporter(Reader reader,ArrayList<String> errors) {
+        this.reader=reader;
+        this.errors=errors;
+    }
+
+    /**
+     * Reads every team of the roster file. Malformed parts are skipped and reported, so that all the problems
+     * of the file can be shown together.
+     * @param file CSV or JSON roster
+     * @param errors receives a description of each problem found, with its line number
+     * @return the teams in the order of the file
+     * @throws CharadesException if the file cannot be read
+     */
+    public static ArrayList<Entry> read(Path file,ArrayList<String> errors) throws CharadesException {
+        try(BufferedReader reader=Files.newBufferedReader(file,StandardCharsets.UTF_8)) {
+            RosterImporter importer=new RosterImporter(reader,errors);
+            if(file.getFileName().toString().toLowerCase().endsWith(".json")) {
+                return importer.readJson();
+            }
+            return importer.readCsv();
+        } catch (IOException e) {
+            throw new CharadesException("The roster could not be read: "+e.getMessage());
+        }
+    }
+
+    private int peek() throws IOException {
+        if(peeked==-2) {
+            peeked=reader.read();
+        }
+        return peeked;
+    }
+
+    private int next() throws IOException {
+        int c=peek();
+        peeked=-2;
+        if(c=='\n') {
+            line++;
+        }
+        return c;
+    }
+
+    //CSV
+
+    private ArrayList<Entry> readCsv() throws IOException {
+        LinkedHashMap<String,Entry> teams=new LinkedHashMap<>();
+        ArrayList<String> fields=new ArrayList<>();
+        boolean first=true;
+        boolean playerPerRow=false;
+        while(peek()!=-1) {
+            int rowLine=line;
+            readCsvRow(fields);
+            if(fields.size()==1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            if(first && isHeader(fields)) {
+                first=false;
+                playerPerRow=fields.size()==2 && fields.get(1).trim().toLowerCase(Locale.ROOT).matches("member|player");
+                continue;
+            }
+            first=false;
+            String name=fields.get(0);
+            if(fields.size()<2) {
+                errors.add("Line "+rowLine+": team "+name+" has no members.");
+                continue;
+            }
+            Entry entry=teams.get(name);
+            if(entry==null) {
+                entry=new Entry(name,rowLine);
+                teams.put(name,entry);
+            }
+            else if(!playerPerRow) {
+                errors.add("Line "+rowLine+": two teams cannot have the same name: "+name+" (see line "+entry.line+").");
+                continue;
+            }
+            for(int i=1;i<fields.size();i++) {
+                if(!fields.get(i).isEmpty()) {
+                    entry.members.add(fields.get(i));
+                }
+            }
+        }
+        return new ArrayList<>(teams.values());
+    }
+
+    /**
+     * @return true if the row names the columns: "team" followed by "member" or "player" fields, possibly numbered
+     */
+    private static boolean isHeader(ArrayList<String> fields) {
+        if(fields.size()<2 || !fields.get(0).trim().equalsIgnoreCase("team")) {
+            return false;
+        }
+        for(int i=1;i<fields.size();i++) {
+            if(!fields.get(i).trim().toLowerCase(Locale.ROOT).matches("(members?|players?)\\s*\\d*")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the fields of one row, including the line break at its end.
+     */
+    private void readCsvRow(ArrayList<String> fields) throws IOException {
+        fields.clear();
+        StringBuilder field=new StringBuilder();
+        boolean quoted=false;
+        while(true) {
+            int c=next();
+            if(quoted) {
+                if(c==-1) {
+                    errors.add("Line "+line+": a quoted field is not closed.");
+                    fields.add(field.toString());
+                    return;
+                }
+                if(c=='"') {
+                    if(peek()=='"') {
+                        field.append((char)next());
+                    }
+                    else {
+                        quoted=false;
+                    }
+                }
+                else {
+                    field.append((char)c);
+                }
+            }
+            else if(c=='"' && field.length()==0) {
+                quoted=true;
+            }
+            else if(c==',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            }
+            else if(c=='\n' || c==-1) {
+                fields.add(field.toString().trim());
+                return;
+            }
+            else if(c!='\r') {
+                field.append((char)c);
+            }
+        }
+    }
+
+    //JSON
+
+    private ArrayList<Entry> readJson() throws IOException {
+        ArrayList<Entry> entries=new ArrayList<>();
+        skipWhitespace();
+        if(!expect('[')) {
+            return entries;
+        }
+        skipWhitespace();
+        if(peek()==']') {
+            next();
+            return entries;
+        }
+        while(true) {
+            skipWhitespace();
+            Entry entry=readJsonTeam();
+            if(entry==null) {
+                return entries;
+            }
+            if(entry.name!=null) {
+                entries.add(entry);
+            }
+            skipWhitespace();
+            int c=next();
+            if(c==']') {
+                return entries;
+            }
+            if(c!=',') {
+                errors.add("Line "+line+": expected , or ] after a team.");
+                return entries;
+            }
+        }
+    }
+
+    /**
+     * @return the team, an entry without a name if the object has no "name", or null if the input is malformed
+     */
+    private Entry readJsonTeam() throws IOException {
+        int teamLine=line;
+        if(!expect('{')) {
+            return null;
+        }
+        String name=null;
+        ArrayList<String> members=null;
+        skipWhitespace();
+        if(peek()=='}') {
+            next();
+        }
+        else {
+            while(true) {
+                skipWhitespace();
+                String key=readJsonString();
+                skipWhitespace();
+                if(key==null || !expect(':')) {
+                    return null;
+                }
+                skipWhitespace();
+                if(key.equals("name")) {
+                    name=readJsonString();
+                    if(name==null) {
+                        return null;
+                    }
+                }
+                else if(key.equals("members")) {
+                    members=readJsonStrings();
+                    if(members==null) {
+                        return null;
+                    }
+                }
+                else if(!skipJsonValue()) {
+                    return null;
+                }
+                skipWhitespace();
+                int c=next();
+                if(c=='}') {
+                    break;
+                }
+                if(c!=',') {
+                    errors.add("Line "+line+": expected , or } in a team.");
+                    return null;
+                }
+            }
+        }
+        if(name==null) {
+            errors.add("Line "+teamLine+": a team has no name.");
+            return new Entry(null,teamLine);
+        }
+        Entry entry=new Entry(name,teamLine);
+        if(members!=null) {
+            for(String member:members) {
+                if(!member.isEmpty()) {
+                    entry.members.add(member);
+                }
+            }
+        }
+        return entry;
+    }
+
+    private ArrayList<String> readJsonStrings() throws IOException {
+        if(!expect('[')) {
+            return null;
+        }
+        ArrayList<String> strings=new ArrayList<>();
+        skipWhitespace();
+        if(peek()==']') {
+            next();
+            return strings;
+        }
+        while(true) {
+            skipWhitespace();
+            String s=readJsonString();
+            if(s==null) {
+                return null;
+            }
+            strings.add(s);
+            skipWhitespace();
+            int c=next();
+            if(c==']') {
+                return strings;
+            }
+            if(c!=',') {
+                errors.add("Line "+line+": expected , or ] in a list of members.");
+                return null;
+            }
+        }
+    }
+
+    private String readJsonString() throws IOException {
+        if(!expect('"')) {
+            return null;
+        }
+        StringBuilder s=new StringBuilder();
+        while(true) {
+            int c=next();
+            if(c==-1 || c=='\n') {
+                errors.add("Line "+line+": a string is not closed.");
+                return null;
+            }
+            if(c=='"') {
+                return s.toString();
+            }
+            if(c=='\\') {
+                c=next();
+                switch(c) {
+                    case 'b': s.append('\b'); break;
+                    case 'f': s.append('\f'); break;
+                    case 'n': s.append('\n'); break;
+                    case 'r': s.append('\r'); break;
+                    case 't': s.append('\t'); break;
+                    case 'u':
+                        int code=0;
+                        for(int i=0;i<4;i++) {
+                            int digit=Character.digit(next(),16);
+                            if(digit<0) {
+                                errors.add("Line "+line+": invalid \\u escape.");
+                                return null;
+                            }
+                            code=code*16+digit;
+                        }
+                        s.append((char)code);
+                        break;
+                    case '"': case '\\': case '/':
+                        s.append((char)c);
+                        break;
+                    default:
+                        errors.add("Line "+line+": invalid escape in a string.");
+                        return null;
+                }
+            }
+            else {
+                s.append((char)c);
+            }
+        }
+    }
+
+    /**
+     * Skips a value of a key that is not used.
+     */
+    private boolean skipJsonValue() throws IOException {
+        int c=peek();
+        if(c=='"') {
+            return readJsonString()!=null;
+        }
+        if(c=='[' || c=='{') {
+            int depth=0;
+            do {
+                c=peek();
+                if(c=='"') {
+                    if(readJsonString()==null) {
+                        return false;
+                    }
+                    continue;
+                }
+                next();
+                if(c=='[' || c=='{') {
+                    depth++;
+                }
+                else if(c==']' || c=='}') {
+                    depth--;
+                }
+                else if(c==-1) {
+                    errors.add("Line "+line+": unexpected end of file.");
+                    return false;
+                }
+            } while(depth>0);
+            return true;
+        }
+        while(c!=',' && c!='}' && c!=']' && c!=-1 && !Character.isWhitespace(c)) {
+            next();
+            c=peek();
+        }
+        return true;
+    }
+
+    private void skipWhitespace() throws IOException {
+        while(peek()!=-1 && Character.isWhitespace(peek())) {
+            next();
+        }
+    }
+
+    private boolean expect(char expected) throws IOException {
+        int c=next();
+        if(c!=expected) {
+            errors.add("Line "+line+": expected "+expected+" but found "+(c==-1 ? "end of file" : String.valueOf((char)c))+".");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,222 @@
+package controller;
+
+/**
+ * The most recent rounds of a game, kept in a fixed-size ring buffer so that results can be corrected, undone
+ * and redone in O(1) without allocating anything per round. When the buffer is full, the oldest round is forgotten.
+ * Recording a new round forgets the rounds that were undone.
+ */
+public class RoundHistory {
+
+    private final int[] team;
+    private final Difficulty[] difficulty;
+    private final int[] points;
+    private final boolean[] guessed;
+    private final String[] word;
+    private final long[] nanos;
+    /**
+     * True for the rounds whose result was added to the word statistics, so that corrections are added too.
+     */
+    private final boolean[] counted;
+    /**
+     * True for the rounds whose result was added to the success rates of the metrics, with the player who played.
+     */
+    private final boolean[] measured;
+    private final String[] player;
+    /**
+     * Slot of the next round to be recorded; the rounds before it (up to size of them) are applied,
+     * the rounds after it (up to redoable of them) were undone.
+     */
+    private int cursor;
+    private int size;
+    private int redoable;
+
+    /**
+     * @param capacity maximum number of rounds remembered
+     */
+    public RoundHistory(int capacity) {
+        team=new int[capacity];
+        difficulty=new Difficulty[capacity];
+        points=new int[capacity];
+        guessed=new boolean[capacity];
+        word=new String[capacity];
+        nanos=new long[capacity];
+        counted=new boolean[capacity];
+        measured=new boolean[capacity];
+        player=new String[capacity];
+    }
+
+    private int previous(int slot) {
+        return slot==0 ? team.length-1 : slot-1;
+    }
+
+    private int next(int slot) {
+        return slot==team.length-1 ? 0 : slot+1;
+    }
+
+    /**
+     * Records the result of a round.
+     * @param teamIndex index of the team that played
+     * @param roundDifficulty difficulty of the word
+     * @param roundPoints points the word is worth
+     * @param roundGuessed true if the word was guessed
+     */
+    public void record(int teamIndex,Difficulty roundDifficulty,int roundPoints,boolean roundGuessed) {
+        record(teamIndex,roundDifficulty,roundPoints,roundGuessed,null,-1);
+    }
+
+    /**
+     * Records the result of a round, with its word.
+     * @param teamIndex index of the team that played
+     * @param roundDifficulty difficulty of the word
+     * @param roundPoints points the word is worth
+     * @param roundGuessed true if the word was guessed
+     * @param roundWord the word, or null if it is unknown
+     * @param roundNanos time from the start of the countdown until the result, or a negative value if it is unknown
+     */
+    public void record(int teamIndex,Difficulty roundDifficulty,int roundPoints,boolean roundGuessed,String roundWord,long roundNanos) {
+        team[cursor]=teamIndex;
+        difficulty[cursor]=roundDifficulty;
+        points[cursor]=roundPoints;
+        guessed[cursor]=roundGuessed;
+        word[cursor]=roundWord;
+        nanos[cursor]=roundNanos;
+        counted[cursor]=false;
+        measured[cursor]=false;
+        player[cursor]=null;
+        cursor=next(cursor);
+        if(size<team.length) {
+            size++;
+        }
+        redoable=0;
+    }
+
+    /**
+     * @return slot of the latest applied round, or -1 if there is none
+     */
+    public int latest() {
+        return size==0 ? -1 : previous(cursor);
+    }
+
+    /**
+     * Marks the latest applied round as undone.
+     * @return slot of that round, or -1 if there is nothing to undo
+     */
+    public int undo() {
+        if(size==0) {
+            return -1;
+        }
+        cursor=previous(cursor);
+        size--;
+        redoable++;
+        return cursor;
+    }
+
+    /**
+     * Marks the latest undone round as applied again.
+     * @return slot of that round, or -1 if there is nothing to redo
+     */
+    public int redo() {
+        if(redoable==0) {
+            return -1;
+        }
+        int slot=cursor;
+        cursor=next(cursor);
+        size++;
+        redoable--;
+        return slot;
+    }
+
+    /**
+     * Reverses the result of a round.
+     * @param slot slot of the round
+     */
+    public void toggle(int slot) {
+        guessed[slot]=!guessed[slot];
+    }
+
+    /**
+     * Forgets every round.
+     */
+    public void clear() {
+        cursor=0;
+        size=0;
+        redoable=0;
+    }
+
+    /**
+     * @return number of rounds that can be undone
+     */
+    public int undoable() {
+        return size;
+    }
+
+    /**
+     * @return number of rounds that can be redone
+     */
+    public int redoable() {
+        return redoable;
+    }
+
+    public int team(int slot) {
+        return team[slot];
+    }
+
+    public Difficulty difficulty(int slot) {
+        return difficulty[slot];
+    }
+
+    public int points(int slot) {
+        return points[slot];
+    }
+
+    public boolean guessed(int slot) {
+        return guessed[slot];
+    }
+
+    public String word(int slot) {
+        return word[slot];
+    }
+
+    public long nanos(int slot) {
+        return nanos[slot];
+    }
+
+    /**
+     * Marks the result of a round as added to the word statistics.
+     * @param slot slot of the round
+     */
+    public void count(int slot) {
+        counted[slot]=true;
+    }
+
+    public boolean counted(int slot) {
+        return counted[slot];
+    }
+
+    /**
+     * Marks the result of a round as added to the success rates of the metrics.
+     * @param slot slot of the round
+     * @param roundPlayer name of the player, or null
+     */
+    public void measure(int slot,String roundPlayer) {
+        measured[slot]=true;
+        player[slot]=roundPlayer;
+    }
+
+    public boolean measured(int slot) {
+        return measured[slot];
+    }
+
+    public String player(int slot) {
+        return player[slot];
+    }
+
+    /**
+     * @param index 0 for the oldest remembered round, undoable()+redoable()-1 for the latest undone one
+     * @return slot of that round
+     */
+    int slot(int index) {
+        int slot=cursor-size+index;
+        return ((slot%team.length)+team.length)%team.length;
+    }
+}
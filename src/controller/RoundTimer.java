@@ -0,0 +1,95 @@
+package controller;
+
+/**
+ * Measures the countdown of a round with the monotonic clock (System.nanoTime), so the time used for scoring
+ * does not depend on when the user interface shows the ticks. It can be paused and resumed.
+ * It is used by one thread, the one playing the game.
+ */
+public class RoundTimer {
+
+    private long limitNanos;
+    private long startedAt;
+    private long pausedAt;
+    private long pausedNanos;
+    private boolean started;
+    private boolean paused;
+
+    /**
+     * Starts measuring from now.
+     * @param seconds duration of the countdown
+     */
+    public void start(int seconds) {
+        limitNanos=seconds*1_000_000_000L;
+        startedAt=System.nanoTime();
+        pausedNanos=0;
+        paused=false;
+        started=true;
+    }
+
+    /**
+     * Stops the time until resume is called. Does nothing if it is already paused.
+     */
+    public void pause() {
+        if(started && !paused) {
+            pausedAt=System.nanoTime();
+            paused=true;
+        }
+    }
+
+    /**
+     * Lets the time run again after pause.
+     */
+    public void resume() {
+        if(paused) {
+            pausedNanos+=System.nanoTime()-pausedAt;
+            paused=false;
+        }
+    }
+
+    /**
+     * Forgets the countdown, for example when a new round starts.
+     */
+    public void reset() {
+        started=false;
+        paused=false;
+    }
+
+    /**
+     * @return true if the countdown of the current round was started
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * @return true if the countdown is paused
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * @return time the countdown ran, without the pauses, in nanoseconds
+     */
+    public long elapsedNanos() {
+        if(!started) {
+            return 0;
+        }
+        long now=paused ? pausedAt : System.nanoTime();
+        return now-startedAt-pausedNanos;
+    }
+
+    /**
+     * @return duration of the countdown in nanoseconds
+     */
+    public long limitNanos() {
+        return limitNanos;
+    }
+
+    /**
+     * @return time left before the end of the countdown, in nanoseconds, 0 once it is over
+     */
+    public long remainingNanos() {
+        return Math.max(0,limitNanos-elapsedNanos());
+    }
+}
@@ -0,0 +1,268 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Teams ranked by score (highest first); teams with equal scores keep the order in which they were added.
+ * The ranking is kept in a treap whose nodes know the size of their subtree, so adding a team, changing a score
+ * and finding the rank of a team all take O(log n). Nodes are stored in arrays indexed by team, so a score change
+ * does not allocate anything. The ranking and the text of the scoreboard are cached and only rebuilt after a score has
+ * changed; the text is only built when it is asked for.
+ * Scores of the teams on the board must only be changed through {@link #addPoints(int, int)}.
+ */
+public class ScoreBoard {
+
+    private static final int NONE=-1;
+
+    private final Teams teams;
+    private final Random random=new Random();
+    private int[] left=new int[0];
+    private int[] right=new int[0];
+    private int[] priority=new int[0];
+    private int[] size=new int[0];
+    private int root=NONE;
+    private String rendered="";
+    private boolean ranked=true;
+    private String[] rankedNames=new String[0];
+    private int[] rankedScores=new int[0];
+
+    /**
+     * @param teams teams whose scores are ranked
+     */
+    public ScoreBoard(Teams teams) {
+        this.teams=teams;
+    }
+
+    /**
+     * @return true if team a, with the given score, is ranked before team b
+     */
+    private boolean before(int a,int scoreA,int b) {
+        int scoreB=teams.score(b);
+        return scoreA>scoreB || (scoreA==scoreB && a<b);
+    }
+
+    private int size(int node) {
+        return node==NONE ? 0 : size[node];
+    }
+
+    private int update(int node) {
+        size[node]=1+size(left[node])+size(right[node]);
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        int l=left[node];
+        left[node]=right[l];
+        right[l]=update(node);
+        return update(l);
+    }
+
+    private int rotateLeft(int node) {
+        int r=right[node];
+        right[node]=left[r];
+        left[r]=update(node);
+        return update(r);
+    }
+
+    private int insert(int node,int added) {
+        if(node==NONE) {
+            return added;
+        }
+        if(before(added,teams.score(added),node)) {
+            left[node]=insert(left[node],added);
+            if(priority[left[node]]>priority[node]) {
+                return rotateRight(node);
+            }
+        }
+        else {
+            right[node]=insert(right[node],added);
+            if(priority[right[node]]>priority[node]) {
+                return rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private int merge(int a,int b) {
+        if(a==NONE) {
+            return b;
+        }
+        if(b==NONE) {
+            return a;
+        }
+        if(priority[a]>priority[b]) {
+            right[a]=merge(right[a],b);
+            return update(a);
+        }
+        left[b]=merge(a,left[b]);
+        return update(b);
+    }
+
+    /**
+     * Removes the node of the team, which is searched for by its current score.
+     */
+    private int remove(int node,int team) {
+        if(node==NONE) {
+            return NONE;
+        }
+        if(node==team) {
+            return merge(left[node],right[node]);
+        }
+        if(before(team,teams.score(team),node)) {
+            left[node]=remove(left[node],team);
+        }
+        else {
+            right[node]=remove(right[node],team);
+        }
+        return update(node);
+    }
+
+    private void reset(int team) {
+        left[team]=NONE;
+        right[team]=NONE;
+        size[team]=1;
+    }
+
+    /**
+     * Puts a team on the board, with its current score.
+     * @param team index of a team that is not on the board yet
+     */
+    public void add(int team) {
+        if(team>=left.length) {
+            int capacity=Math.max(teams.capacity(),team+1);
+            left=Arrays.copyOf(left,capacity);
+            right=Arrays.copyOf(right,capacity);
+            priority=Arrays.copyOf(priority,capacity);
+            size=Arrays.copyOf(size,capacity);
+        }
+        priority[team]=random.nextInt();
+        reset(team);
+        root=insert(root,team);
+        ranked=false;
+        rendered=null;
+    }
+
+    /**
+     * Changes the score of a team and moves it to its new place.
+     * @param team index of a team on the board
+     * @param points number of points to be added, negative to subtract
+     */
+    public void addPoints(int team,int points) {
+        if(points==0) {
+            return;
+        }
+        root=remove(root,team);
+        teams.addScore(team,points);
+        reset(team);
+        root=insert(root,team);
+        ranked=false;
+        rendered=null;
+    }
+
+    /**
+     * @return number of teams on the board
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * @param team index of a team on the board
+     * @return position of the team on the board, starting from 1
+     */
+    public int rankOf(int team) {
+        int rank=1;
+        int score=teams.score(team);
+        int node=root;
+        while(node!=NONE) {
+            if(node==team) {
+                return rank+size(left[node]);
+            }
+            if(before(team,score,node)) {
+                node=left[node];
+            }
+            else {
+                rank+=size(left[node])+1;
+                node=right[node];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param k maximum number of teams
+     * @return indices of the k best teams, best first
+     */
+    public int[] top(int k) {
+        int[] result=new int[Math.min(k,size())];
+        collect(root,result,0);
+        return result;
+    }
+
+    /**
+     * Writes the teams of the subtree in ranking order, as long as there is room.
+     * @return number of teams written so far
+     */
+    private int collect(int node,int[] result,int count) {
+        if(node==NONE || count>=result.length) {
+            return count;
+        }
+        count=collect(left[node],result,count);
+        if(count<result.length) {
+            result[count++]=node;
+        }
+        return collect(right[node],result,count);
+    }
+
+    /**
+     * Rebuilds the cached ranking if a score has changed since it was built. The arrays are replaced, never modified,
+     * so the previous ones can still be shared.
+     */
+    private void rank() {
+        if(ranked) {
+            return;
+        }
+        int[] ranking=top(size());
+        String[] names=new String[ranking.length];
+        int[] scores=new int[ranking.length];
+        for(int i=0;i<ranking.length;i++) {
+            names[i]=teams.name(ranking[i]);
+            scores[i]=teams.score(ranking[i]);
+        }
+        rankedNames=names;
+        rankedScores=scores;
+        ranked=true;
+    }
+
+    /**
+     * @return team names and scores written on separate lines, best team first
+     */
+    public String render() {
+        if(rendered==null) {
+            rank();
+            StringBuilder text=new StringBuilder();
+            for(int i=0;i<rankedNames.length;i++) {
+                text.append(rankedNames[i]).append(": ").append(rankedScores[i]).append('\n');
+            }
+            rendered=text.toString();
+        }
+        return rendered;
+    }
+
+    /**
+     * @return names of the teams, best team first; the array is shared and must not be modified
+     */
+    String[] rankedNames() {
+        rank();
+        return rankedNames;
+    }
+
+    /**
+     * @return scores of the teams, in the order of {@link #rankedNames()}; the array is shared and must not be modified
+     */
+    int[] rankedScores() {
+        rank();
+        return rankedScores;
+    }
+}
@@ -0,0 +1,59 @@
+package controller;
+
+/**
+ * How many points a guessed word is worth, depending on how fast it was guessed.
+ */
+public enum Scoring {
+    /**
+     * The points of the difficulty, whatever the time.
+     */
+    FLAT("flat") {
+        @Override
+        int points(int points,long elapsedNanos,long limitNanos,double minimumShare) {
+            return points;
+        }
+    },
+    /**
+     * All the points of the difficulty at the start of the countdown, decreasing linearly to the minimum share of
+     * them when the countdown ends.
+     */
+    LINEAR("linear") {
+        @Override
+        int points(int points,long elapsedNanos,long limitNanos,double minimumShare) {
+            double used=limitNanos<=0 ? 1 : Math.min(1,Math.max(0,(double)elapsedNanos/limitNanos));
+            return (int)Math.round(points*(1-(1-minimumShare)*used));
+        }
+    };
+
+    /**
+     * Name used in the configuration.
+     */
+    public final String key;
+
+    Scoring(String key) {
+        this.key=key;
+    }
+
+    /**
+     * @param points points of the difficulty
+     * @param elapsedNanos time the countdown ran before the word was guessed
+     * @param limitNanos duration of the countdown
+     * @param minimumShare share of the points still given when the countdown is over, between 0 and 1
+     * @return points given for the word
+     */
+    abstract int points(int points,long elapsedNanos,long limitNanos,double minimumShare);
+
+    /**
+     * @param key name used in the configuration
+     * @return the scoring with that name
+     * @throws IllegalArgumentException if there is no such scoring
+     */
+    public static Scoring of(String key) {
+        for(Scoring scoring:values()) {
+            if(scoring.key.equals(key)) {
+                return scoring;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scoring: "+key);
+    }
+}
@@ -0,0 +1,119 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Teams of a game stored as parallel arrays indexed by the order in which the teams were added: names, members,
+ * scores and the position of the member who plays next. Moving to the next player or changing a score does not
+ * allocate anything, and a game takes a few arrays instead of one object and one list per team.
+ * Scores of the teams should only be changed through the {@link ScoreBoard}, which keeps the ranking.
+ */
+public class Teams {
+
+    private String[] names;
+    private String[][] members;
+    private int[] scores;
+    private int[] currentMember;
+    private int size;
+
+    public Teams() {
+        this(8);
+    }
+
+    /**
+     * @param capacity number of teams that can be added before the arrays have to grow
+     */
+    public Teams(int capacity) {
+        capacity=Math.max(capacity,1);
+        names=new String[capacity];
+        members=new String[capacity][];
+        scores=new int[capacity];
+        currentMember=new int[capacity];
+    }
+
+    /**
+     * Adds a team with score 0, whose first player will be the first member.
+     * @param name name of the team
+     * @param teamMembers names of team members
+     * @return index of the new team
+     */
+    int add(String name,List<String> teamMembers) {
+        if(size==names.length) {
+            int capacity=size*2;
+            names=Arrays.copyOf(names,capacity);
+            members=Arrays.copyOf(members,capacity);
+            scores=Arrays.copyOf(scores,capacity);
+            currentMember=Arrays.copyOf(currentMember,capacity);
+        }
+        names[size]=name;
+        members[size]=teamMembers.toArray(new String[0]);
+        scores[size]=0;
+        currentMember[size]=-1;
+        return size++;
+    }
+
+    /**
+     * @return number of teams
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return current capacity of the arrays
+     */
+    int capacity() {
+        return names.length;
+    }
+
+    public String name(int team) {
+        return names[team];
+    }
+
+    public int score(int team) {
+        return scores[team];
+    }
+
+    public int memberCount(int team) {
+        return members[team].length;
+    }
+
+    public String member(int team,int member) {
+        return members[team][member];
+    }
+
+    /**
+     * @param team index of the team
+     * @return position of the member playing for the team, or -1 if the team has not played yet
+     */
+    public int currentMember(int team) {
+        return currentMember[team];
+    }
+
+    /**
+     * Moves on to the next member of the team, starting again with the first after the last.
+     * @param team index of the team
+     * @return name of the member who plays next
+     */
+    String nextMember(int team) {
+        int next=currentMember[team]+1;
+        if(next>=members[team].length) {
+            next-=members[team].length;
+        }
+        currentMember[team]=next;
+        return members[team][next];
+    }
+
+    void addScore(int team,int points) {
+        scores[team]+=points;
+    }
+
+    /**
+     * Restores the state of a team from a saved game.
+     */
+    void restore(int team,int score,int member) {
+        scores[team]=score;
+        currentMember[team]=member;
+    }
+}
@@ -0,0 +1,336 @@
+package controller;
+
+import gui.CharadesException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tournament of many teams split into brackets. Each bracket is an independent game with its own {@link Controller}
+ * and its own lock, so brackets are played at the same time: by people, through {@link Bracket#execute(GameCommand)},
+ * or simulated in batch on a fork/join pool by {@link #advance(int, double, long)}. After each command a bracket
+ * publishes its standings as an immutable array; the overall leaderboard merges the latest standings of every
+ * bracket without locking any of them. The results of the brackets, often simulated, are not recorded in the word
+ * statistics used by adaptive selection.
+ * <p>
+ * Usage: Tournament [teams] [brackets] [rounds] simulates a tournament with random results and prints the
+ * best teams.
+ */
+public class Tournament {
+
+    private final WordLibrary words;
+    private final ArrayList<String> teamNames=new ArrayList<>();
+    private final ArrayList<String> teamMembers=new ArrayList<>();
+    private final HashSet<String> usedNames=new HashSet<>();
+    private final ForkJoinPool pool;
+    private Bracket[] brackets;
+
+    /**
+     * Score of one team in its bracket.
+     */
+    public static final class Standing {
+        public final String team;
+        public final int bracket;
+        public final int score;
+
+        Standing(String team,int bracket,int score) {
+            this.team=team;
+            this.bracket=bracket;
+            this.score=score;
+        }
+
+        @Override
+        public String toString() {
+            return team+" ("+(bracket+1)+"): "+score;
+        }
+    }
+
+    /**
+     * One group of teams playing a game of its own.
+     */
+    public static final class Bracket {
+        private final int index;
+        private final Controller controller;
+        private final ReentrantLock lock=new ReentrantLock();
+        private volatile Standing[] standings=new Standing[0];
+
+        Bracket(int index,Controller controller) {
+            this.index=index;
+            this.controller=controller;
+        }
+
+        /**
+         * @return position of the bracket in the tournament, starting from 0
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Executes one step of the game of this bracket, as the GUI does, then publishes its standings.
+         * @param command step of the game
+         * @return the state of the game after the command
+         * @throws CharadesException if the game rejects the command
+         */
+        public GameSnapshot execute(GameCommand command) throws CharadesException {
+            lock.lock();
+            try {
+                GameSnapshot snapshot=command.execute(controller);
+                publish();
+                return snapshot;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Plays rounds with random results: a random difficulty is chosen and the word is guessed with the given probability.
+         */
+        void simulate(int rounds,double guessRate,Random random) {
+            lock.lock();
+            try {
+                List<Difficulty> difficulties=controller.getConfig().getDifficulties();
+                for(int round=0;round<rounds;round++) {
+                    if(controller.getCurrentPlayerName()==null) {
+                        controller.getNextTeam();
+                        controller.getNextPlayer();
+                        controller.nextAction();
+                    }
+                    controller.startRound(difficulties.get(random.nextInt(difficulties.size())));
+                    if(random.nextDouble()<guessRate) {
+                        controller.goodGuess();
+                    }
+                    else {
+                        controller.badGuess();
+                    }
+                    controller.getNextTeam();
+                    controller.getNextPlayer();
+                    controller.nextAction();
+                }
+                publish();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Replaces the standings read by the leaderboard. Must be called while holding the lock.
+         */
+        private void publish() {
+            ScoreBoard board=controller.getRanking();
+            String[] names=board.rankedNames();
+            int[] scores=board.rankedScores();
+            Standing[] latest=new Standing[names.length];
+            for(int i=0;i<names.length;i++) {
+                latest[i]=new Standing(names[i],index,scores[i]);
+            }
+            standings=latest;
+        }
+
+        /**
+         * @return teams of the bracket with their scores, best team first, as of the latest command
+         */
+        public List<Standing> getStandings() {
+            return List.of(standings);
+        }
+    }
+
+    /**
+     * Plays the tournament with the shared word lists, simulating brackets on the common fork/join pool.
+     */
+    public Tournament() {
+        this(WordLibrary.getDefault(),ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param words word lists shared by every bracket
+     * @param pool pool the brackets are simulated and the leaderboard merged on
+     */
+    public Tournament(WordLibrary words,ForkJoinPool pool) {
+        this.words=words;
+        this.pool=pool;
+    }
+
+    public static void main(String[] args) throws CharadesException {
+        int teams=args.length>0 ? Integer.parseInt(args[0]) : 512;
+        int bracketCount=args.length>1 ? Integer.parseInt(args[1]) : 64;
+        int rounds=args.length>2 ? Integer.parseInt(args[2]) : 100;
+        Tournament tournament=new Tournament();
+        for(int team=0;team<teams;team++) {
+            tournament.register("team "+team,"player "+team+"-1\nplayer "+team+"-2\nplayer "+team+"-3");
+        }
+        tournament.start(bracketCount);
+        long start=System.nanoTime();
+        tournament.advance(rounds,0.6,1);
+        long elapsed=System.nanoTime()-start;
+        System.out.printf("%d teams in %d brackets played %d rounds per bracket in %.1f ms%n",teams,bracketCount,rounds,elapsed/1e6);
+        List<Standing> leaderboard=tournament.getLeaderboard();
+        for(int i=0;i<Math.min(10,leaderboard.size());i++) {
+            System.out.println((i+1)+". "+leaderboard.get(i));
+        }
+    }
+
+    /**
+     * Registers a team before the tournament starts.
+     * @param teamName name of the team, different from the names of the other teams
+     * @param teamMembers names of the members written on separate lines, at least two
+     * @throws CharadesException if the tournament already started, the name is already used or the team would be
+     * rejected by its game, so that a registered team never keeps the tournament from starting
+     */
+    public void register(String teamName,String teamMembers) throws CharadesException {
+        if(brackets!=null) {
+            throw new CharadesException("The tournament has already started.");
+        }
+        Controller.validateMembers(teamName,Controller.parseMembers(teamMembers));
+        if(!usedNames.add(teamName)) {
+            throw new CharadesException("There is already a team named "+teamName+".");
+        }
+        teamNames.add(teamName);
+        this.teamMembers.add(teamMembers);
+    }
+
+    /**
+     * Splits the registered teams into brackets and starts the game of each bracket. Teams are dealt in the order
+     * they registered, so the brackets differ by at most one team.
+     * @param count number of brackets
+     * @throws CharadesException if a bracket would have fewer than two teams, or a team is rejected by its game
+     */
+    public void start(int count) throws CharadesException {
+        if(brackets!=null) {
+            throw new CharadesException("The tournament has already started.");
+        }
+        if(count<1 || teamNames.size()<2*count) {
+            throw new CharadesException("Every bracket needs at least two teams.");
+        }
+        Bracket[] created=new Bracket[count];
+        for(int i=0;i<count;i++) {
+            created[i]=new Bracket(i,new Controller(words,null));
+            int size=teamNames.size()/count+(i<teamNames.size()%count ? 1 : 0);
+            created[i].execute(GameCommand.of(GameCommand.Type.SET_NUMBER_TEAMS,String.valueOf(size)));
+        }
+        for(int team=0;team<teamNames.size();team++) {
+            created[team%count].execute(GameCommand.addTeam(teamNames.get(team),teamMembers.get(team)));
+        }
+        brackets=created;
+    }
+
+    /**
+     * @return number of brackets, 0 before the tournament started
+     */
+    public int getBracketCount() {
+        return brackets==null ? 0 : brackets.length;
+    }
+
+    /**
+     * @param index position of the bracket, starting from 0
+     * @return the bracket
+     */
+    public Bracket getBracket(int index) {
+        return brackets[index];
+    }
+
+    /**
+     * Simulates rounds in every bracket, the brackets being played in parallel. The results of the rounds only depend on
+     * the seed, not on how the brackets were scheduled.
+     * @param rounds number of rounds played in each bracket
+     * @param guessRate probability that a word is guessed
+     * @param seed seed of the random results
+     */
+    public void advance(int rounds,double guessRate,long seed) {
+        if(brackets==null) {
+            throw new IllegalStateException("The tournament has not started.");
+        }
+        pool.invoke(new Advance(brackets,0,brackets.length,rounds,guessRate,seed));
+    }
+
+    /**
+     * Plays a range of brackets, splitting it until a single bracket is left.
+     */
+    private static final class Advance extends RecursiveAction {
+        private static final long serialVersionUID=1L;
+        private final Bracket[] brackets;
+        private final int from;
+        private final int to;
+        private final int rounds;
+        private final double guessRate;
+        private final long seed;
+
+        Advance(Bracket[] brackets,int from,int to,int rounds,double guessRate,long seed) {
+            this.brackets=brackets;
+            this.from=from;
+            this.to=to;
+            this.rounds=rounds;
+            this.guessRate=guessRate;
+            this.seed=seed;
+        }
+
+        @Override
+        protected void compute() {
+            if(to-from==1) {
+                brackets[from].simulate(rounds,guessRate,new Random(seed*31+from));
+                return;
+            }
+            int middle=(from+to)>>>1;
+            invokeAll(new Advance(brackets,from,middle,rounds,guessRate,seed),new Advance(brackets,middle,to,rounds,guessRate,seed));
+        }
+    }
+
+    /**
+     * Merges the latest standings of every bracket. Brackets can be played meanwhile: each one contributes the
+     * standings it published last.
+     * @return every team of the tournament, highest score first; teams with equal scores are ordered by bracket
+     */
+    public List<Standing> getLeaderboard() {
+        if(brackets==null) {
+            return List.of();
+        }
+        Standing[][] standings=new Standing[brackets.length][];
+        for(int i=0;i<brackets.length;i++) {
+            standings[i]=brackets[i].standings;
+        }
+        return Arrays.asList(pool.invoke(new Merge(standings,0,standings.length)));
+    }
+
+    /**
+     * Merges the standings of a range of brackets, each of them sorted, by merging both halves of the range.
+     */
+    private static final class Merge extends RecursiveTask<Standing[]> {
+        private static final long serialVersionUID=1L;
+        private final Standing[][] standings;
+        private final int from;
+        private final int to;
+
+        Merge(Standing[][] standings,int from,int to) {
+            this.standings=standings;
+            this.from=from;
+            this.to=to;
+        }
+
+        @Override
+        protected Standing[] compute() {
+            if(to-from==1) {
+                return standings[from];
+            }
+            int middle=(from+to)>>>1;
+            Merge right=new Merge(standings,middle,to);
+            right.fork();
+            Standing[] a=new Merge(standings,from,middle).compute();
+            Standing[] b=right.join();
+            Standing[] merged=new Standing[a.length+b.length];
+            int i=0;
+            int j=0;
+            for(int k=0;k<merged.length;k++) {
+                merged[k]=j>=b.length || (i<a.length && a[i].score>=b[j].score) ? a[i++] : b[j++];
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package controller;
+
+import java.util.Random;
+
+/**
+ * Draws words with probabilities given by their {@link WordStats}: words whose guess rate is close to the target
+ * are drawn more often. A drawn word is not drawn again until every word was drawn, as with {@link WordDeck}.
+ * <p>
+ * The weights are kept in a Fenwick tree, so drawing a word and removing it cost O(log n); a reset rebuilds the
+ * tree in O(n) with the latest statistics.
+ */
+public class WeightedWordDeck implements WordSelector {
+
+    private final WordList list;
+    private final WordStats stats;
+    private final double targetRate;
+    private final Random random;
+    private final double[] weights;
+    private final double[] tree;
+    private final int highestBit;
+    private double total;
+    private int remaining;
+
+    /**
+     * @param list words to be drawn
+     * @param stats results of the words in previous games
+     * @param targetRate share of words the teams should guess
+     * @param random source of randomness, shared with the rest of the game
+     */
+    public WeightedWordDeck(WordList list,WordStats stats,double targetRate,Random random) {
+        this.list=list;
+        this.stats=stats;
+        this.targetRate=targetRate;
+        this.random=random;
+        weights=new double[list.size()];
+        tree=new double[list.size()+1];
+        highestBit=list.size()==0 ? 0 : Integer.highestOneBit(list.size());
+        reset();
+    }
+
+    @Override
+    public int size() {
+        return weights.length;
+    }
+
+    @Override
+    public int remaining() {
+        return remaining;
+    }
+
+    @Override
+    public int draw() {
+        if(remaining==0) {
+            reset();
+        }
+        double target=random.nextDouble()*total;
+        int position=0;
+        for(int bit=highestBit;bit>0;bit>>=1) {
+            int next=position+bit;
+            if(next<tree.length && tree[next]<=target) {
+                position=next;
+                target-=tree[next];
+            }
+        }
+        int index=Math.min(position,weights.length-1);
+        while(weights[index]==0) {
+            // rounding left the target past the last available word: take the closest one before it
+            index=index==0 ? weights.length-1 : index-1;
+        }
+        remove(index);
+        return index;
+    }
+
+    private void remove(int index) {
+        double weight=weights[index];
+        weights[index]=0;
+        total-=weight;
+        remaining--;
+        for(int i=index+1;i<tree.length;i+=i&-i) {
+            tree[i]-=weight;
+        }
+        if(remaining==0) {
+            total=0;
+        }
+    }
+
+    /**
+     * Makes every word available again, with weights from the latest statistics.
+     */
+    @Override
+    public void reset() {
+        total=0;
+        for(int i=0;i<weights.length;i++) {
+            weights[i]=stats.weight(list.get(i),targetRate);
+            tree[i+1]=weights[i];
+            total+=weights[i];
+        }
+        for(int i=1;i<tree.length;i++) {
+            int parent=i+(i&-i);
+            if(parent<tree.length) {
+                tree[parent]+=tree[i];
+            }
+        }
+        remaining=weights.length;
+    }
+}
@@ -0,0 +1,74 @@
+package controller;
+
+import java.util.Random;
+
+/**
+ * Draws word indices without repetition until every word of the list has been drawn.
+ * It keeps a permutation of the indices and performs one step of the Fisher-Yates shuffle per draw,
+ * so a draw costs O(1) and the words themselves are never copied.
+ * Resetting only forgets how many words were drawn: the remaining steps shuffle the permutation again.
+ */
+public class WordDeck implements WordSelector {
+
+    private int[] order;
+    private int remaining;
+    private final int size;
+    private final Random random;
+
+    /**
+     * @param size number of words in the list
+     * @param random source of randomness, shared with the rest of the game so seeding it makes games reproducible
+     */
+    public WordDeck(int size,Random random) {
+        this.size=size;
+        this.random=random;
+        remaining=size;
+    }
+
+    /**
+     * @return number of words in the list
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of words that can be drawn before the deck is exhausted
+     */
+    @Override
+    public int remaining() {
+        return remaining;
+    }
+
+    /**
+     * Draws an index that was not drawn since the last reset. When the deck is exhausted, it starts over.
+     * @return index of a word in the list
+     */
+    @Override
+    public int draw() {
+        if(order==null) {
+            order=new int[size];
+            for(int i=0;i<size;i++) {
+                order[i]=i;
+            }
+        }
+        if(remaining==0) {
+            reset();
+        }
+        int chosen=random.nextInt(remaining);
+        remaining--;
+        int index=order[chosen];
+        order[chosen]=order[remaining];
+        order[remaining]=index;
+        return index;
+    }
+
+    /**
+     * Makes every word available again.
+     */
+    @Override
+    public void reset() {
+        remaining=size;
+    }
+}
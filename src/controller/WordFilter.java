@@ -0,0 +1,123 @@
+package controller;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Words a game may draw, chosen by length, number of words, tags and a list of banned words. A filter is applied
+ * once to the {@link WordIndex} of each difficulty, and words are then drawn from the matching words only.
+ * It is read from the game configuration:
+ * <pre>
+ * filter.minLength=3
+ * filter.maxLength=20
+ * filter.minWords=1
+ * filter.maxWords=2
+ * filter.tags=animals,sports
+ * filter.excludeTags=adult
+ * filter.banned=shark,jumping jack
+ * </pre>
+ * A filter is immutable, so it can be shared between games.
+ */
+public class WordFilter {
+
+    private final int minLength;
+    private final int maxLength;
+    private final int minWords;
+    private final int maxWords;
+    private final Set<String> tags;
+    private final Set<String> excludedTags;
+    private final Set<String> banned;
+
+    /**
+     * @param minLength minimum number of characters of a word, spaces included
+     * @param maxLength maximum number of characters of a word
+     * @param minWords minimum number of words separated by spaces, e.g. 2 for "jumping jack"
+     * @param maxWords maximum number of words separated by spaces
+     * @param tags a word must have one of these tags, or any tag if empty
+     * @param excludedTags a word must have none of these tags
+     * @param banned words never drawn, ignoring case
+     */
+    public WordFilter(int minLength,int maxLength,int minWords,int maxWords,Collection<String> tags,Collection<String> excludedTags,
+                      Collection<String> banned) {
+        if(minLength>maxLength || minWords>maxWords) {
+            throw new IllegalArgumentException("The minimum of a word filter cannot be larger than its maximum.");
+        }
+        this.minLength=minLength;
+        this.maxLength=maxLength;
+        this.minWords=minWords;
+        this.maxWords=maxWords;
+        this.tags=Collections.unmodifiableSet(new HashSet<>(tags));
+        this.excludedTags=Collections.unmodifiableSet(new HashSet<>(excludedTags));
+        HashSet<String> lowerCase=new HashSet<>();
+        for(String word:banned) {
+            lowerCase.add(word.toLowerCase(Locale.ROOT));
+        }
+        this.banned=Collections.unmodifiableSet(lowerCase);
+    }
+
+    /**
+     * Reads the filter.* entries of a configuration.
+     * @param properties the configuration
+     * @return the filter, or null if there is no filter entry
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    static WordFilter load(Properties properties) {
+        boolean found=false;
+        for(String key:properties.stringPropertyNames()) {
+            found|=key.startsWith("filter.");
+        }
+        if(!found) {
+            return null;
+        }
+        return new WordFilter(GameConfig.intProperty(properties,"filter.minLength",0),
+                GameConfig.intProperty(properties,"filter.maxLength",Integer.MAX_VALUE),
+                GameConfig.intProperty(properties,"filter.minWords",0),
+                GameConfig.intProperty(properties,"filter.maxWords",Integer.MAX_VALUE),
+                listProperty(properties,"filter.tags"),listProperty(properties,"filter.excludeTags"),listProperty(properties,"filter.banned"));
+    }
+
+    private static Set<String> listProperty(Properties properties,String key) {
+        HashSet<String> values=new HashSet<>();
+        for(String value:properties.getProperty(key,"").split(",")) {
+            if(!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @param length number of characters of a word
+     * @param words number of words separated by spaces
+     * @return true if a word of that size is accepted
+     */
+    boolean acceptsSize(int length,int words) {
+        return length>=minLength && length<=maxLength && words>=minWords && words<=maxWords;
+    }
+
+    /**
+     * @return a word must have one of these tags, or any tag if empty
+     */
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return a word must have none of these tags
+     */
+    public Set<String> getExcludedTags() {
+        return excludedTags;
+    }
+
+    /**
+     * @param word a word of a list
+     * @return true if the word is banned
+     */
+    boolean isBanned(String word) {
+        return !banned.isEmpty() && banned.contains(word.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,373 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Index of the words of one list: the length, the number of words and the tags of each word, and the words in
+ * alphabetical order for prefix search. A {@link WordFilter} is applied in one pass over the index, giving the list
+ * of matching words, from which a word is drawn in O(1) like from any list.
+ * <p>
+ * The index is built when the words are loaded and cached next to them, so that large packs are only scanned once:
+ * <pre>
+ * int    magic ("CHWI"), int version, long checksum of the words and their tags, int number of words (n)
+ * int    number of tags, followed by the UTF tags
+ * short[n] lengths, byte[n] numbers of words, long[n] tags (one bit per tag), int[n] alphabetical order
+ * </pre>
+ * The cache is rebuilt when the checksum of the words and their tags has changed, or when the file is damaged.
+ * Tags come from a text file with one tagged word per line, written word|tag,tag.
+ */
+public class WordIndex {
+
+    static final int MAGIC=0x43485749;
+    static final int VERSION=2;
+
+    /**
+     * Number of distinct tags of a list; further tags are ignored and reported when the index is built.
+     */
+    static final int MAX_TAGS=64;
+
+    private final WordList list;
+    private final String[] tags;
+    private final short[] lengths;
+    private final byte[] wordCounts;
+    private final long[] tagMasks;
+    private final int[] sorted;
+
+    private WordIndex(WordList list,String[] tags,short[] lengths,byte[] wordCounts,long[] tagMasks,int[] sorted) {
+        this.list=list;
+        this.tags=tags;
+        this.lengths=lengths;
+        this.wordCounts=wordCounts;
+        this.tagMasks=tagMasks;
+        this.sorted=sorted;
+    }
+
+    /**
+     * Scans every word of a list.
+     * @param list the words
+     * @param wordTags tags of the tagged words
+     * @return the index of the list
+     */
+    static WordIndex build(WordList list,Map<String,String[]> wordTags) {
+        int size=list.size();
+        short[] lengths=new short[size];
+        byte[] wordCounts=new byte[size];
+        long[] tagMasks=new long[size];
+        String[] lowerCase=new String[size];
+        ArrayList<String> tags=new ArrayList<>();
+        HashMap<String,Integer> tagBits=new HashMap<>();
+        TreeSet<String> ignored=new TreeSet<>();
+        for(int i=0;i<size;i++) {
+            String word=list.get(i);
+            lowerCase[i]=word.toLowerCase(Locale.ROOT);
+            lengths[i]=(short)Math.min(word.codePointCount(0,word.length()),Short.MAX_VALUE);
+            wordCounts[i]=(byte)Math.min(countWords(word),Byte.MAX_VALUE);
+            String[] own=wordTags.get(word);
+            if(own==null) {
+                continue;
+            }
+            for(String tag:own) {
+                Integer bit=tagBits.get(tag);
+                if(bit==null) {
+                    if(tags.size()==MAX_TAGS) {
+                        ignored.add(tag);
+                        continue;
+                    }
+                    bit=tags.size();
+                    tagBits.put(tag,bit);
+                    tags.add(tag);
+                }
+                tagMasks[i]|=1L<<bit;
+            }
+        }
+        if(!ignored.isEmpty()) {
+            System.err.println(ignored.size()+" tags past the limit of "+MAX_TAGS+" per list are ignored: "+String.join(", ",ignored));
+        }
+        Integer[] order=new Integer[size];
+        for(int i=0;i<size;i++) {
+            order[i]=i;
+        }
+        Arrays.sort(order,(a,b) -> lowerCase[a].compareTo(lowerCase[b]));
+        int[] sorted=new int[size];
+        for(int i=0;i<size;i++) {
+            sorted[i]=order[i];
+        }
+        return new WordIndex(list,tags.toArray(new String[0]),lengths,wordCounts,tagMasks,sorted);
+    }
+
+    private static int countWords(String word) {
+        int count=0;
+        boolean inWord=false;
+        for(int i=0;i<word.length();i++) {
+            boolean space=Character.isWhitespace(word.charAt(i));
+            if(!space && !inWord) {
+                count++;
+            }
+            inWord=!space;
+        }
+        return count;
+    }
+
+    /**
+     * Reads the cached index of a list, or builds it and caches it if the cache is missing, outdated or damaged.
+     * @param file cache file
+     * @param list the words
+     * @param wordTags tags of the tagged words
+     * @return the index of the list
+     */
+    static WordIndex open(Path file,WordList list,Map<String,String[]> wordTags) {
+        long checksum=checksum(list,wordTags);
+        WordIndex index=null;
+        if(Files.exists(file)) {
+            try {
+                index=read(file,list,checksum);
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        if(index==null) {
+            index=build(list,wordTags);
+            try {
+                index.write(file,checksum);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return the index in the file, or null if it was made for other words or holds impossible values
+     */
+    private static WordIndex read(Path file,WordList list,long checksum) throws IOException {
+        try(DataInputStream in=new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt()!=MAGIC || in.readInt()!=VERSION || in.readLong()!=checksum) {
+                return null;
+            }
+            int size=in.readInt();
+            if(size!=list.size()) {
+                return null;
+            }
+            int tagCount=in.readInt();
+            if(tagCount<0 || tagCount>MAX_TAGS) {
+                return null;
+            }
+            long usedBits=tagCount==Long.SIZE ? -1L : (1L<<tagCount)-1;
+            String[] tags=new String[tagCount];
+            for(int i=0;i<tags.length;i++) {
+                tags[i]=in.readUTF();
+            }
+            short[] lengths=new short[size];
+            byte[] wordCounts=new byte[size];
+            long[] tagMasks=new long[size];
+            int[] sorted=new int[size];
+            for(int i=0;i<size;i++) {
+                lengths[i]=in.readShort();
+            }
+            in.readFully(wordCounts);
+            for(int i=0;i<size;i++) {
+                tagMasks[i]=in.readLong();
+                if((tagMasks[i]&~usedBits)!=0) {
+                    return null;
+                }
+            }
+            for(int i=0;i<size;i++) {
+                sorted[i]=in.readInt();
+                if(sorted[i]<0 || sorted[i]>=size) {
+                    return null;
+                }
+            }
+            return new WordIndex(list,tags,lengths,wordCounts,tagMasks,sorted);
+        }
+    }
+
+    /**
+     * Writes the index to a temporary file that then replaces the cache, so a cache is never read half written.
+     */
+    private void write(Path file,long checksum) throws IOException {
+        Path temporary=file.resolveSibling(file.getFileName()+".tmp");
+        try(DataOutputStream out=new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checksum);
+            out.writeInt(lengths.length);
+            out.writeInt(tags.length);
+            for(String tag:tags) {
+                out.writeUTF(tag);
+            }
+            for(short length:lengths) {
+                out.writeShort(length);
+            }
+            out.write(wordCounts);
+            for(long mask:tagMasks) {
+                out.writeLong(mask);
+            }
+            for(int index:sorted) {
+                out.writeInt(index);
+            }
+        }
+        Files.move(temporary,file,StandardCopyOption.REPLACE_EXISTING,StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Hashes the words of a list and their tags (64-bit FNV-1a), so that any change to them, even one keeping the
+     * size and the modification time of the files, changes the result.
+     * @param list the words
+     * @param wordTags tags of the tagged words
+     * @return the checksum
+     */
+    static long checksum(WordList list,Map<String,String[]> wordTags) {
+        long hash=0xcbf29ce484222325L;
+        for(int i=0;i<list.size();i++) {
+            String word=list.get(i);
+            hash=hash(hash,word,'\n');
+            String[] own=wordTags.get(word);
+            if(own!=null) {
+                for(String tag:own) {
+                    hash=hash(hash,tag,'\0');
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long hash(long hash,String text,char end) {
+        for(int i=0;i<text.length();i++) {
+            hash=(hash^text.charAt(i))*0x100000001b3L;
+        }
+        return (hash^end)*0x100000001b3L;
+    }
+
+    /**
+     * Reads the tags of the words.
+     * @param file text file with lines written word|tag,tag; it may not exist
+     * @return the tags of each tagged word
+     */
+    static HashMap<String,String[]> loadTags(Path file) {
+        HashMap<String,String[]> wordTags=new HashMap<>();
+        if(!Files.exists(file)) {
+            return wordTags;
+        }
+        try(BufferedReader reader=Files.newBufferedReader(file,StandardCharsets.UTF_8)) {
+            String line;
+            while((line=reader.readLine())!=null) {
+                int separator=line.lastIndexOf('|');
+                if(separator<=0) {
+                    continue;
+                }
+                String[] tags=line.substring(separator+1).split(",");
+                for(int i=0;i<tags.length;i++) {
+                    tags[i]=tags[i].trim();
+                }
+                wordTags.put(line.substring(0,separator),tags);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return wordTags;
+    }
+
+    /**
+     * @return the indexed words
+     */
+    public WordList list() {
+        return list;
+    }
+
+    /**
+     * @return the tags used by the words of the list
+     */
+    public List<String> getTags() {
+        return List.of(tags);
+    }
+
+    /**
+     * Finds the words a filter accepts. Tags of the filter that no word of this list has match no word; they are
+     * checked against every list by {@link Controller}.
+     * @param filter the filter
+     * @return the accepted words, in the order of the list; a view on the list, possibly empty
+     */
+    public WordList filter(WordFilter filter) {
+        long required=mask(filter.getTags());
+        long excluded=mask(filter.getExcludedTags());
+        boolean anyTag=filter.getTags().isEmpty();
+        int[] matches=new int[lengths.length];
+        int count=0;
+        for(int i=0;i<lengths.length;i++) {
+            if(filter.acceptsSize(lengths[i],wordCounts[i]) && (anyTag || (tagMasks[i]&required)!=0) && (tagMasks[i]&excluded)==0
+                    && !filter.isBanned(list.get(i))) {
+                matches[count++]=i;
+            }
+        }
+        int[] indices=Arrays.copyOf(matches,count);
+        return new WordList() {
+            @Override
+            public int size() {
+                return indices.length;
+            }
+
+            @Override
+            public String get(int index) {
+                return list.get(indices[index]);
+            }
+        };
+    }
+
+    private long mask(Iterable<String> names) {
+        long mask=0;
+        for(String name:names) {
+            for(int bit=0;bit<tags.length;bit++) {
+                if(tags[bit].equals(name)) {
+                    mask|=1L<<bit;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Finds the words starting with a prefix, ignoring case, by binary search in the alphabetical order.
+     * @param prefix beginning of the words
+     * @param limit maximum number of words returned
+     * @return the words, in alphabetical order
+     */
+    public List<String> search(String prefix,int limit) {
+        String lowerCase=prefix.toLowerCase(Locale.ROOT);
+        int low=0;
+        int high=sorted.length;
+        while(low<high) {
+            int middle=(low+high)>>>1;
+            if(list.get(sorted[middle]).toLowerCase(Locale.ROOT).compareTo(lowerCase)<0) {
+                low=middle+1;
+            }
+            else {
+                high=middle;
+            }
+        }
+        ArrayList<String> words=new ArrayList<>();
+        for(int i=low;i<sorted.length && words.size()<limit;i++) {
+            String word=list.get(sorted[i]);
+            if(!word.toLowerCase(Locale.ROOT).startsWith(lowerCase)) {
+                break;
+            }
+            words.add(word);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,438 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Word lists of every difficulty. The lists are never modified after loading, so one library can be shared
+ * by any number of controllers and threads.
+ * <p>
+ * When the directory is watched, changed word files are loaded again in the background. The new lists replace
+ * the old ones only once they are completely loaded, so games keep drawing from the old lists in the meantime.
+ * <p>
+ * Each list is indexed once loaded (see {@link WordIndex}), so that games can filter the words they draw;
+ * the indexes are cached next to the words, in words.&lt;difficulty&gt;.idx.
+ */
+public class WordLibrary {
+
+    /**
+     * Binary word pack created by {@link WordPackConverter}. When it is missing, the text files are used.
+     */
+    static final String PACK_FILE="words.pack";
+
+    /**
+     * Tags of the words, used to filter them. It is optional.
+     */
+    static final String TAGS_FILE="wordtags.txt";
+
+    /**
+     * Number of collisions printed when the words are loaded; the others are only counted.
+     */
+    static final int REPORTED_COLLISIONS=20;
+
+    /**
+     * Background threads loading the word lists, so that the window does not wait for them.
+     */
+    private static final ExecutorService LOADER=Executors.newFixedThreadPool(3,runnable -> {
+        Thread thread=new Thread(runnable,"word-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Time without further changes after which a modified file is considered completely written.
+     */
+    static final long QUIET_MILLIS=200;
+
+    private static WordLibrary defaultLibrary;
+
+    private final GameConfig config;
+    private final Path directory;
+    /**
+     * Replaced as a whole when words are reloaded, never modified.
+     */
+    private volatile CompletableFuture<WordList>[] difficultyToList;
+    private volatile CompletableFuture<List<String>> collisions;
+    /**
+     * Index of each list, replaced together with the lists.
+     */
+    private volatile CompletableFuture<WordIndex>[] difficultyToIndex;
+    private long loads;
+    private long published;
+    private WatchService watcher;
+
+    /**
+     * Loads the words of the default configuration from the working directory.
+     */
+    public WordLibrary() {
+        this(Paths.get(""),GameConfig.getDefault());
+    }
+
+    /**
+     * Loads the words of the default configuration.
+     * @param directory directory containing words.pack or the word files
+     */
+    public WordLibrary(Path directory) {
+        this(directory,GameConfig.getDefault());
+    }
+
+    /**
+     * Word lists start loading in the background (in parallel for each difficulty),
+     * from the word pack if there is one, otherwise from the text files.
+     * @param directory directory containing words.pack or the word files of the configuration
+     * @param config difficulties whose words are loaded
+     */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    public WordLibrary(Path directory,GameConfig config) {
+        this.config=config;
+        this.directory=directory;
+        CompletableFuture<WordList>[] lists=new CompletableFuture[config.difficultyCount()];
+        CompletableFuture<WordIndex>[] indexes=new CompletableFuture[config.difficultyCount()];
+        collisions=load(lists,indexes);
+        difficultyToList=lists;
+        difficultyToIndex=indexes;
+    }
+
+    /**
+     * Starts loading every word list in the background. The text files are read in parallel, and each list is
+     * available as soon as its own file is read: words listed twice in it are dropped, and a word listed in several
+     * files is stored once. The sections of the word pack stay in the mapped file. Each list is then indexed.
+     * Once every file is read, the collisions are found and reported separately.
+     * @param lists filled with the lists, each available once its own words are loaded
+     * @param indexes filled with the indexes of the lists
+     * @return the collisions of the words read from text files
+     */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    private CompletableFuture<List<String>> load(CompletableFuture<WordList>[] lists,CompletableFuture<WordIndex>[] indexes) {
+        CompletableFuture<WordPack> pack=CompletableFuture.supplyAsync(() -> loadPack(directory.resolve(PACK_FILE)),LOADER);
+        CompletableFuture<ArrayList<String>>[] texts=new CompletableFuture[config.difficultyCount()];
+        ConcurrentHashMap<String,String> shared=new ConcurrentHashMap<>();
+        for(Difficulty difficulty:config.getDifficulties()) {
+            texts[difficulty.index()]=loadText(pack,difficulty.key,directory.resolve(difficulty.fileName));
+            lists[difficulty.index()]=texts[difficulty.index()].thenCombineAsync(pack,
+                    (text,p) -> text!=null ? distinct(text,shared) : p.section(difficulty.key),LOADER);
+        }
+        CompletableFuture<List<String>> loaded=CompletableFuture.allOf(texts).thenApplyAsync(ignored -> {
+            ArrayList<ArrayList<String>> words=new ArrayList<>(texts.length);
+            for(CompletableFuture<ArrayList<String>> text:texts) {
+                words.add(text.join());
+            }
+            return collisions(words);
+        },LOADER);
+        CompletableFuture<HashMap<String,String[]>> tags=CompletableFuture.supplyAsync(
+                () -> WordIndex.loadTags(directory.resolve(TAGS_FILE)),LOADER);
+        for(Difficulty difficulty:config.getDifficulties()) {
+            Path file=directory.resolve("words."+difficulty.key+".idx");
+            indexes[difficulty.index()]=lists[difficulty.index()].thenCombineAsync(tags,(list,wordTags) -> {
+                long start=GameMetrics.start();
+                WordIndex index=WordIndex.open(file,list,wordTags);
+                GameMetrics.stop("indexWords",start);
+                return index;
+            },LOADER);
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the words listed twice in a list, and uses the same String for a word listed in several lists.
+     * @param words words read from a file
+     * @param shared every word of the lists being loaded, filled by the lists in parallel
+     * @return the distinct words, in the order of the file
+     */
+    private static WordList distinct(ArrayList<String> words,ConcurrentHashMap<String,String> shared) {
+        HashSet<String> seen=new HashSet<>();
+        ArrayList<String> list=new ArrayList<>(words.size());
+        for(String word:words) {
+            if(seen.add(word)) {
+                String previous=shared.putIfAbsent(word,word);
+                list.add(previous!=null ? previous : word);
+            }
+        }
+        return WordList.of(list);
+    }
+
+    /**
+     * Finds the words listed twice in a file or listed in several files, and prints them.
+     * @param lists words read from the file of each difficulty, by index of the difficulty, or null for a difficulty
+     *              loaded from the word pack
+     * @return a description of each collision
+     */
+    private List<String> collisions(List<ArrayList<String>> lists) {
+        HashMap<String,Integer> wordToDifficulty=new HashMap<>();
+        ArrayList<String> collisions=new ArrayList<>();
+        for(int difficulty=0;difficulty<lists.size();difficulty++) {
+            ArrayList<String> list=lists.get(difficulty);
+            if(list==null) {
+                continue;
+            }
+            String key=config.difficulty(difficulty).key;
+            for(String word:list) {
+                Integer first=wordToDifficulty.put(word,difficulty);
+                if(first==null) {
+                    continue;
+                }
+                collisions.add(first==difficulty ? word+" is listed twice in "+key
+                        : word+" is listed in "+config.difficulty(first).key+" and "+key);
+            }
+        }
+        if(!collisions.isEmpty()) {
+            System.err.println(collisions.size()+" word collisions:");
+            for(int i=0;i<Math.min(collisions.size(),REPORTED_COLLISIONS);i++) {
+                System.err.println("    "+collisions.get(i));
+            }
+            if(collisions.size()>REPORTED_COLLISIONS) {
+                System.err.println("    and "+(collisions.size()-REPORTED_COLLISIONS)+" more");
+            }
+        }
+        return Collections.unmodifiableList(collisions);
+    }
+
+    /**
+     * Loads every word list again in the background. The current lists stay in use until the new ones are
+     * completely loaded. A list that turns out to be empty (for example a file being rewritten) is not used.
+     * @return completed once the new lists are used
+     */
+    @SuppressWarnings({"unchecked","rawtypes"})
+    public CompletableFuture<Void> reload() {
+        long load;
+        synchronized(this) {
+            load=++loads;
+        }
+        CompletableFuture<WordList>[] lists=new CompletableFuture[config.difficultyCount()];
+        CompletableFuture<WordIndex>[] indexes=new CompletableFuture[config.difficultyCount()];
+        CompletableFuture<List<String>> loaded=load(lists,indexes);
+        return CompletableFuture.allOf(indexes).thenRun(() -> publish(load,loaded,lists,indexes));
+    }
+
+    /**
+     * Replaces the lists with the ones that were reloaded, unless a more recent reload was already used.
+     * @param load number of the reload
+     * @param loaded collisions of the reload
+     * @param lists completely loaded lists
+     * @param indexes indexes of the lists
+     */
+    private synchronized void publish(long load,CompletableFuture<List<String>> loaded,CompletableFuture<WordList>[] lists,
+                                      CompletableFuture<WordIndex>[] indexes) {
+        if(load<published) {
+            return;
+        }
+        published=load;
+        CompletableFuture<WordList>[] next=difficultyToList.clone();
+        CompletableFuture<WordIndex>[] nextIndexes=difficultyToIndex.clone();
+        for(Difficulty difficulty:config.getDifficulties()) {
+            if(lists[difficulty.index()].join().size()>0) {
+                next[difficulty.index()]=lists[difficulty.index()];
+                nextIndexes[difficulty.index()]=indexes[difficulty.index()];
+            }
+            else {
+                System.err.println("No words for "+difficulty.key+", keeping the previous list.");
+            }
+        }
+        difficultyToList=next;
+        difficultyToIndex=nextIndexes;
+        collisions=loaded;
+    }
+
+    /**
+     * Starts watching the directory: when the word pack or a word file changes, the words are reloaded.
+     * Does nothing if the directory is already watched.
+     * @throws IOException if the directory cannot be watched
+     */
+    public synchronized void startWatching() throws IOException {
+        if(watcher!=null) {
+            return;
+        }
+        Path watched=directory.toAbsolutePath();
+        HashSet<Path> files=new HashSet<>();
+        files.add(watched.resolve(PACK_FILE));
+        files.add(watched.resolve(TAGS_FILE));
+        for(Difficulty difficulty:config.getDifficulties()) {
+            files.add(watched.resolve(difficulty.fileName));
+        }
+        WatchService service=watched.getFileSystem().newWatchService();
+        watched.register(service,StandardWatchEventKinds.ENTRY_CREATE,StandardWatchEventKinds.ENTRY_MODIFY,StandardWatchEventKinds.ENTRY_DELETE);
+        watcher=service;
+        Thread thread=new Thread(() -> watch(service,watched,files),"word-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the directory.
+     */
+    public synchronized void stopWatching() {
+        if(watcher!=null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            watcher=null;
+        }
+    }
+
+    /**
+     * Reloads the words after each burst of changes to the watched files, until the watch service is closed.
+     * @param service watch service of the directory
+     * @param watched directory
+     * @param files word files in the directory
+     */
+    private void watch(WatchService service,Path watched,HashSet<Path> files) {
+        try {
+            while(true) {
+                WatchKey key=service.take();
+                boolean changed=false;
+                while(key!=null) {
+                    for(WatchEvent<?> event:key.pollEvents()) {
+                        if(event.kind()==StandardWatchEventKinds.OVERFLOW || files.contains(watched.resolve((Path)event.context()))) {
+                            changed=true;
+                        }
+                    }
+                    key.reset();
+                    key=service.poll(QUIET_MILLIS,TimeUnit.MILLISECONDS);
+                }
+                if(changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // watching stopped
+        }
+    }
+
+    /**
+     * @return the library shared by every controller created without one
+     */
+    public static synchronized WordLibrary getDefault() {
+        if(defaultLibrary==null) {
+            defaultLibrary=new WordLibrary();
+        }
+        return defaultLibrary;
+    }
+
+    /**
+     * @return the rules whose difficulties are loaded
+     */
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Waits only if the words are still being loaded.
+     * @return a description of each word read from text files that is listed in several difficulties or twice in one
+     */
+    public List<String> getCollisions() {
+        return collisions.join();
+    }
+
+    /**
+     * Waits only if the words of that difficulty are still being loaded.
+     * @param difficulty name of a configured difficulty
+     * @return words of that difficulty
+     */
+    public WordList get(String difficulty) {
+        return get(config.difficulty(difficulty));
+    }
+
+    /**
+     * Waits only if the words of that difficulty are still being loaded.
+     * @param difficulty difficulty of the words
+     * @return words of that difficulty
+     */
+    public WordList get(Difficulty difficulty) {
+        return difficultyToList[difficulty.index()].join();
+    }
+
+    /**
+     * Waits only if the words of that difficulty are still being loaded or indexed.
+     * @param difficulty difficulty of the words
+     * @return index of the words of that difficulty, whose list may be more recent than {@link #get(Difficulty)}
+     */
+    public WordIndex getIndex(Difficulty difficulty) {
+        return difficultyToIndex[difficulty.index()].join();
+    }
+
+    /**
+     * Loads each line from a file and puts it into the list.
+     * @param fileName name of the file
+     * @param list empty list
+     */
+    private static void loadFile(String fileName,ArrayList<String> list) {
+        try(FileReader fileReader=new FileReader(fileName)) {
+            BufferedReader reader=new BufferedReader(fileReader);
+            String line;
+            while((line=reader.readLine())!=null) {
+                list.add(line);
+            }
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads the words of a text file.
+     * @param fileName name of the file
+     * @return list containing each line of the file
+     */
+    static ArrayList<String> loadFile(String fileName) {
+        long start=GameMetrics.start();
+        ArrayList<String> list=new ArrayList<>();
+        loadFile(fileName,list);
+        GameMetrics.stop("loadFile",start);
+        return list;
+    }
+
+    /**
+     * Opens the binary word pack if there is one. The words stay in the mapped file and are decoded on demand.
+     * @param file path of the pack
+     * @return the pack, or null if there is no usable pack
+     */
+    private static WordPack loadPack(Path file) {
+        if(!Files.exists(file)) {
+            return null;
+        }
+        long start=GameMetrics.start();
+        try {
+            return WordPack.open(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        finally {
+            GameMetrics.stop("loadPack",start);
+        }
+    }
+
+    /**
+     * Starts reading the text file of one difficulty in the background, unless the pack contains its words.
+     * @param pack word pack being opened
+     * @param difficulty name of the section in the pack
+     * @param file text file used when the pack does not contain the section
+     * @return the words of the file, or null if they are in the pack
+     */
+    private static CompletableFuture<ArrayList<String>> loadText(CompletableFuture<WordPack> pack,String difficulty,Path file) {
+        return pack.thenApplyAsync(p -> p!=null && p.section(difficulty)!=null ? null : loadFile(file.toString()),LOADER);
+    }
+}
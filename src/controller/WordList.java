@@ -0,0 +1,38 @@
+package controller;
+
+import java.util.ArrayList;
+
+/**
+ * Read-only list of words that can be accessed by index.
+ */
+public interface WordList {
+
+    /**
+     * @return number of words in the list
+     */
+    int size();
+
+    /**
+     * @param index position of the word, between 0 and size()-1
+     * @return the word at the given position
+     */
+    String get(int index);
+
+    /**
+     * @param words words loaded into memory
+     * @return list backed by the given words
+     */
+    static WordList of(ArrayList<String> words) {
+        return new WordList() {
+            @Override
+            public int size() {
+                return words.size();
+            }
+
+            @Override
+            public String get(int index) {
+                return words.get(index);
+            }
+        };
+    }
+}
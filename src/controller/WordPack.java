@@ -0,0 +1,122 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+/**
+ * Binary word pack opened through a memory-mapped file. Words are decoded only when they are requested,
+ * so large packs do not have to be kept on the heap.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * int    magic ("CHWP")
+ * int    version
+ * int    number of sections
+ * for each section:
+ *     short  length of the section name, followed by the UTF-8 bytes of the name
+ *     int    number of words (n)
+ *     long   position of the offset table
+ *     long   position of the word data
+ * for each section:
+ *     int[n+1] offsets of the words inside the word data
+ *     byte[]   UTF-8 bytes of the words, one after the other
+ * </pre>
+ */
+public class WordPack {
+
+    static final int MAGIC=0x43485750;
+    static final int VERSION=1;
+
+    private final MappedByteBuffer buffer;
+    private final HashMap<String,Section> sections=new HashMap<>();
+
+    private WordPack(MappedByteBuffer buffer) throws IOException {
+        this.buffer=buffer;
+        if(buffer.getInt(0)!=MAGIC) {
+            throw new IOException("Not a word pack.");
+        }
+        if(buffer.getInt(4)!=VERSION) {
+            throw new IOException("Unsupported word pack version "+buffer.getInt(4)+".");
+        }
+        int count=buffer.getInt(8);
+        int position=12;
+        for(int i=0;i<count;i++) {
+            byte[] name=new byte[buffer.getShort(position)];
+            buffer.get(position+2,name);
+            position+=2+name.length;
+            int size=buffer.getInt(position);
+            long offsets=buffer.getLong(position+4);
+            long data=buffer.getLong(position+12);
+            position+=20;
+            sections.put(new String(name,StandardCharsets.UTF_8),new Section(size,(int)offsets,(int)data));
+        }
+    }
+
+    /**
+     * Maps the given file into memory.
+     * @param fileName name of the pack file
+     * @return the opened pack
+     * @throws IOException if the file cannot be read or is not a word pack
+     */
+    public static WordPack open(String fileName) throws IOException {
+        return open(Paths.get(fileName));
+    }
+
+    /**
+     * Maps the given file into memory.
+     * @param file path of the pack file
+     * @return the opened pack
+     * @throws IOException if the file cannot be read or is not a word pack
+     */
+    public static WordPack open(Path file) throws IOException {
+        try(FileChannel channel=FileChannel.open(file,StandardOpenOption.READ)) {
+            return new WordPack(channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size()));
+        }
+    }
+
+    /**
+     * @param name name of the section, e.g. easy, medium or hard
+     * @return the words of that section, or null if the pack has no such section
+     */
+    public WordList section(String name) {
+        return sections.get(name);
+    }
+
+    /**
+     * Words of one section. Reads use absolute positions only, so a section can be shared between threads.
+     */
+    private class Section implements WordList {
+        private final int size;
+        private final int offsets;
+        private final int data;
+
+        Section(int size,int offsets,int data) {
+            this.size=size;
+            this.offsets=offsets;
+            this.data=data;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public String get(int index) {
+            if(index<0||index>=size) {
+                throw new IndexOutOfBoundsException("Index "+index+" out of bounds for length "+size);
+            }
+            int start=buffer.getInt(offsets+4*index);
+            int end=buffer.getInt(offsets+4*index+4);
+            byte[] bytes=new byte[end-start];
+            buffer.get(data+start,bytes);
+            return new String(bytes,StandardCharsets.UTF_8);
+        }
+    }
+}
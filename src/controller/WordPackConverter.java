@@ -0,0 +1,128 @@
+package controller;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+/**
+ * Converts word lists stored as text files (one word per line) into a single binary {@link WordPack}.
+ * <p>
+ * Usage: WordPackConverter [output name=file ...]
+ * Without arguments words.pack is created from the word files of the difficulties in game.properties.
+ */
+public class WordPackConverter {
+
+    public static void main(String[] args) throws IOException {
+        if(args.length==0) {
+            GameConfig config=GameConfig.getDefault();
+            args=new String[config.difficultyCount()+1];
+            args[0]=WordLibrary.PACK_FILE;
+            for(Difficulty difficulty:config.getDifficulties()) {
+                args[difficulty.index()+1]=difficulty.key+"="+difficulty.fileName;
+            }
+        }
+        if(args.length<2) {
+            System.err.println("Usage: WordPackConverter output name=file ...");
+            return;
+        }
+        ArrayList<String> names=new ArrayList<>();
+        ArrayList<ArrayList<String>> sections=new ArrayList<>();
+        for(int i=1;i<args.length;i++) {
+            int separator=args[i].indexOf('=');
+            if(separator<=0) {
+                System.err.println("Expected name=file instead of "+args[i]);
+                return;
+            }
+            names.add(args[i].substring(0,separator));
+            sections.add(readLines(args[i].substring(separator+1)));
+        }
+        convert(args[0],names,sections);
+    }
+
+    /**
+     * Reads every line of a text file.
+     * @param fileName name of the file
+     * @return the lines of the file
+     * @throws IOException if the file cannot be read
+     */
+    static ArrayList<String> readLines(String fileName) throws IOException {
+        ArrayList<String> lines=new ArrayList<>();
+        try(BufferedReader reader=Files.newBufferedReader(Paths.get(fileName),StandardCharsets.UTF_8)) {
+            String line;
+            while((line=reader.readLine())!=null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the given sections into a word pack. The pack is written next to the destination and then renamed,
+     * so a running game watching the directory never maps a partially written pack.
+     * @param fileName name of the pack file to be created
+     * @param names section names
+     * @param sections words of each section, in the same order as the names
+     * @throws IOException if the file cannot be written
+     */
+    public static void convert(String fileName,ArrayList<String> names,ArrayList<ArrayList<String>> sections) throws IOException {
+        ArrayList<byte[]> encodedNames=new ArrayList<>();
+        ArrayList<byte[][]> encodedWords=new ArrayList<>();
+        long position=12;
+        long dataSize=0;
+        for(int i=0;i<names.size();i++) {
+            byte[] name=names.get(i).getBytes(StandardCharsets.UTF_8);
+            encodedNames.add(name);
+            position+=2+name.length+20;
+            ArrayList<String> words=sections.get(i);
+            byte[][] encoded=new byte[words.size()][];
+            for(int j=0;j<words.size();j++) {
+                encoded[j]=words.get(j).getBytes(StandardCharsets.UTF_8);
+                dataSize+=encoded[j].length;
+            }
+            dataSize+=4L*(words.size()+1);
+            encodedWords.add(encoded);
+        }
+        if(position+dataSize>Integer.MAX_VALUE) {
+            throw new IOException("Word pack would be larger than 2 GB.");
+        }
+        Path destination=Paths.get(fileName);
+        Path temporary=Paths.get(fileName+".tmp");
+        try(DataOutputStream out=new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary.toFile())))) {
+            out.writeInt(WordPack.MAGIC);
+            out.writeInt(WordPack.VERSION);
+            out.writeInt(names.size());
+            for(int i=0;i<names.size();i++) {
+                byte[][] words=encodedWords.get(i);
+                out.writeShort(encodedNames.get(i).length);
+                out.write(encodedNames.get(i));
+                out.writeInt(words.length);
+                out.writeLong(position);
+                position+=4L*(words.length+1);
+                out.writeLong(position);
+                for(byte[] word:words) {
+                    position+=word.length;
+                }
+            }
+            for(byte[][] words:encodedWords) {
+                int offset=0;
+                out.writeInt(offset);
+                for(byte[] word:words) {
+                    offset+=word.length;
+                    out.writeInt(offset);
+                }
+                for(byte[] word:words) {
+                    out.write(word);
+                }
+            }
+        }
+        Files.move(temporary,destination,StandardCopyOption.REPLACE_EXISTING,StandardCopyOption.ATOMIC_MOVE);
+    }
+}
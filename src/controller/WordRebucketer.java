@@ -0,0 +1,139 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the words whose results in previous games match another difficulty better than their own: each word
+ * that was played often enough is moved to the difficulty whose average guess rate is the closest to its own.
+ * <p>
+ * Usage: WordRebucketer [minimum rounds] [--write=directory]
+ * Prints the words to be moved, using game.properties, the words of the working directory and wordstats.bin.
+ * With --write, word files with the words moved are written to the given directory, ready to replace the
+ * current ones.
+ */
+public class WordRebucketer {
+
+    /**
+     * Number of rounds a word must have been played in before it is moved.
+     */
+    static final int MINIMUM_ROUNDS=5;
+
+    public static void main(String[] args) throws IOException {
+        int minimumRounds=MINIMUM_ROUNDS;
+        Path output=null;
+        for(String arg:args) {
+            if(arg.startsWith("--write=")) {
+                output=Paths.get(arg.substring("--write=".length()));
+            }
+            else {
+                minimumRounds=Integer.parseInt(arg);
+            }
+        }
+        WordLibrary library=WordLibrary.getDefault();
+        GameConfig config=library.getConfig();
+        ArrayList<ArrayList<String>> buckets=rebucket(library,WordStats.getDefault(),minimumRounds,System.out);
+        if(output!=null) {
+            Files.createDirectories(output);
+            for(Difficulty difficulty:config.getDifficulties()) {
+                Files.write(output.resolve(difficulty.fileName),buckets.get(difficulty.index()),StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Distributes the words between the difficulties according to their results.
+     * @param library current words of each difficulty
+     * @param stats results of the words
+     * @param minimumRounds words played in fewer rounds stay where they are
+     * @param report receives one line per word moved, or null
+     * @return the words of each difficulty after moving them, by index of the difficulty
+     * @throws IOException if the report cannot be written
+     */
+    public static ArrayList<ArrayList<String>> rebucket(WordLibrary library,WordStats stats,int minimumRounds,Appendable report) throws IOException {
+        GameConfig config=library.getConfig();
+        int count=config.difficultyCount();
+        double[] rates=new double[count];
+        boolean[] known=new boolean[count];
+        for(Difficulty difficulty:config.getDifficulties()) {
+            WordList list=library.get(difficulty);
+            double sum=0;
+            int words=0;
+            for(int i=0;i<list.size();i++) {
+                String word=list.get(i);
+                if(stats.rounds(word)>=minimumRounds) {
+                    sum+=rate(stats,word);
+                    words++;
+                }
+            }
+            known[difficulty.index()]=words>0;
+            rates[difficulty.index()]=words==0 ? 0 : sum/words;
+        }
+        ArrayList<ArrayList<String>> buckets=new ArrayList<>(count);
+        for(int i=0;i<count;i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for(Difficulty difficulty:config.getDifficulties()) {
+            WordList list=library.get(difficulty);
+            for(int i=0;i<list.size();i++) {
+                String word=list.get(i);
+                int bucket=difficulty.index();
+                if(stats.rounds(word)>=minimumRounds) {
+                    bucket=closest(rates,known,rate(stats,word),bucket);
+                }
+                buckets.get(bucket).add(word);
+                if(bucket!=difficulty.index() && report!=null) {
+                    report.append(word+": "+difficulty.key+" -> "+config.difficulty(bucket).key+" (guessed "
+                            +stats.guessed(word)+" of "+stats.rounds(word)+")"+System.lineSeparator());
+                }
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * @param library current words of each difficulty
+     * @param stats results of the words
+     * @param minimumRounds words played in fewer rounds stay where they are
+     * @return one line per word to be moved
+     */
+    public static List<String> suggest(WordLibrary library,WordStats stats,int minimumRounds) {
+        StringBuilder report=new StringBuilder();
+        try {
+            rebucket(library,stats,minimumRounds,report);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        ArrayList<String> lines=new ArrayList<>();
+        for(String line:report.toString().split(System.lineSeparator())) {
+            if(!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static double rate(WordStats stats,String word) {
+        return (double)stats.guessed(word)/stats.rounds(word);
+    }
+
+    /**
+     * @return the difficulty with the average rate closest to the given one; the current one on a tie
+     */
+    private static int closest(double[] rates,boolean[] known,double rate,int current) {
+        int best=current;
+        double bestDistance=known[current] ? Math.abs(rates[current]-rate) : Double.MAX_VALUE;
+        for(int i=0;i<rates.length;i++) {
+            if(known[i] && Math.abs(rates[i]-rate)<bestDistance) {
+                best=i;
+                bestDistance=Math.abs(rates[i]-rate);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,28 @@
+package controller;
+
+/**
+ * Chooses the words of a list one at a time, without repeating a word until every word was chosen.
+ */
+public interface WordSelector {
+
+    /**
+     * @return number of words in the list
+     */
+    int size();
+
+    /**
+     * @return number of words that can be drawn before the words start over
+     */
+    int remaining();
+
+    /**
+     * Draws a word that was not drawn since the last reset. When every word was drawn, it starts over.
+     * @return index of a word in the list
+     */
+    int draw();
+
+    /**
+     * Makes every word available again.
+     */
+    void reset();
+}
@@ -0,0 +1,205 @@
+package controller;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+
+/**
+ * How often each word was guessed, over every game played, and how long the guesses took.
+ * The statistics are kept in a compact binary file:
+ * <pre>
+ * int magic ("CHWS"), int version, int number of words
+ * for each word: UTF word, int rounds, int guessed, long total time of the guesses in milliseconds
+ * </pre>
+ * The file is replaced atomically when saved. One instance can be shared by every game of the process.
+ */
+public class WordStats {
+
+    static final int MAGIC=0x43485753;
+    static final int VERSION=1;
+
+    /**
+     * File used by {@link #getDefault()}.
+     */
+    static final String STATS_FILE="wordstats.bin";
+
+    /**
+     * Number of imaginary rounds at the target rate added to the real ones, so that a word played once is not
+     * treated as always or never guessed.
+     */
+    static final double PRIOR_ROUNDS=2;
+
+    /**
+     * Smallest weight of a word, so that every word is still drawn sometimes.
+     */
+    static final double MINIMUM_WEIGHT=0.05;
+
+    private static WordStats defaultStats;
+
+    private static final class Entry {
+        int rounds;
+        int guessed;
+        long guessMillis;
+    }
+
+    private final Path file;
+    private final HashMap<String,Entry> words=new HashMap<>();
+    private boolean changed;
+
+    /**
+     * @param file file the statistics are saved to
+     */
+    public WordStats(Path file) {
+        this.file=file;
+    }
+
+    /**
+     * @return the statistics of wordstats.bin in the working directory, shared by every game of the process
+     */
+    public static synchronized WordStats getDefault() {
+        if(defaultStats==null) {
+            defaultStats=new WordStats(Paths.get(STATS_FILE));
+            try {
+                defaultStats.load();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return defaultStats;
+    }
+
+    /**
+     * Reads the statistics from the file, if it exists, and adds them to the ones recorded so far.
+     * @throws IOException if the file cannot be read or is not a statistics file
+     */
+    public synchronized void load() throws IOException {
+        if(!Files.exists(file)) {
+            return;
+        }
+        try(DataInputStream in=new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt()!=MAGIC || in.readInt()!=VERSION) {
+                throw new IOException("Not a word statistics file: "+file);
+            }
+            int count=in.readInt();
+            for(int i=0;i<count;i++) {
+                Entry entry=words.computeIfAbsent(in.readUTF(),word -> new Entry());
+                entry.rounds+=in.readInt();
+                entry.guessed+=in.readInt();
+                entry.guessMillis+=in.readLong();
+            }
+        }
+    }
+
+    /**
+     * Writes the statistics to the file, if something was recorded since the last save.
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        if(!changed) {
+            return;
+        }
+        Path temporary=file.resolveSibling(file.getFileName()+".tmp");
+        try(DataOutputStream out=new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(words.size());
+            for(HashMap.Entry<String,Entry> word:words.entrySet()) {
+                out.writeUTF(word.getKey());
+                out.writeInt(word.getValue().rounds);
+                out.writeInt(word.getValue().guessed);
+                out.writeLong(word.getValue().guessMillis);
+            }
+        }
+        Files.move(temporary,file,StandardCopyOption.REPLACE_EXISTING,StandardCopyOption.ATOMIC_MOVE);
+        changed=false;
+    }
+
+    /**
+     * Records the result of a round.
+     * @param word the word that was played
+     * @param guessed true if it was guessed
+     * @param nanos time until it was guessed, or a negative value if it is unknown
+     */
+    public synchronized void record(String word,boolean guessed,long nanos) {
+        add(word,guessed,nanos,1);
+    }
+
+    /**
+     * Removes the result of a round recorded earlier, when it is corrected or undone.
+     * @param word the word that was played
+     * @param guessed the result that was recorded
+     * @param nanos the time that was recorded
+     */
+    public synchronized void cancel(String word,boolean guessed,long nanos) {
+        add(word,guessed,nanos,-1);
+    }
+
+    private void add(String word,boolean guessed,long nanos,int rounds) {
+        Entry entry=words.computeIfAbsent(word,key -> new Entry());
+        entry.rounds+=rounds;
+        if(guessed) {
+            entry.guessed+=rounds;
+            if(nanos>0) {
+                entry.guessMillis+=rounds*(nanos/1_000_000);
+            }
+        }
+        changed=true;
+    }
+
+    /**
+     * @param word a word
+     * @return number of rounds played with that word
+     */
+    public synchronized int rounds(String word) {
+        Entry entry=words.get(word);
+        return entry==null ? 0 : entry.rounds;
+    }
+
+    /**
+     * @param word a word
+     * @return number of rounds in which that word was guessed
+     */
+    public synchronized int guessed(String word) {
+        Entry entry=words.get(word);
+        return entry==null ? 0 : entry.guessed;
+    }
+
+    /**
+     * @param word a word
+     * @return average time of the guesses in seconds, or 0 if it was never guessed
+     */
+    public synchronized double meanGuessSeconds(String word) {
+        Entry entry=words.get(word);
+        return entry==null || entry.guessed==0 ? 0 : entry.guessMillis/1000.0/entry.guessed;
+    }
+
+    /**
+     * @param word a word
+     * @param targetRate share of words the teams should guess
+     * @return estimated probability that the word is guessed, starting from the target for unknown words
+     */
+    public synchronized double rate(String word,double targetRate) {
+        Entry entry=words.get(word);
+        if(entry==null) {
+            return targetRate;
+        }
+        return (entry.guessed+targetRate*PRIOR_ROUNDS)/(entry.rounds+PRIOR_ROUNDS);
+    }
+
+    /**
+     * @param word a word
+     * @param targetRate share of words the teams should guess
+     * @return how likely the word should be drawn: highest when it is guessed as often as the target
+     */
+    public double weight(String word,double targetRate) {
+        double distance=Math.abs(rate(word,targetRate)-targetRate)/Math.max(targetRate,1-targetRate);
+        return Math.max(MINIMUM_WEIGHT,1-distance);
+    }
+}
@@ -6,6 +6,7 @@ package gui;
 public class CharadesException extends Exception{
     String message;
     public CharadesException(String s) {
+        super(s);
         message=s;
     }
     @Override
@@ -1,30 +1,49 @@
 package gui;
-import java.util.Timer;
-import java.util.TimerTask;
 
-import controller.Controller;
+import java.io.File;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import controller.CommandChannel;
+import controller.Countdown;
+import controller.CountdownScheduler;
+import controller.GameCommand;
+import controller.GameSnapshot;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.scene.control.*;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.*;
+import javafx.stage.FileChooser;
 
 /**
  * It handles the interactions with the user.
  * First the user pushes the "Start new game" button. The user writes the number of teams and clicks "Send".
  * For each team, the team name is written in the text field intended for it, and the team members are written
  * line by line to the text area intended for team members. "Send" must be clicked after entering data on each team.
+ * Alternatively, "Import" adds all the teams of a CSV or JSON roster file at once.
  * After all the teams are added, the information about the next round is displayed on the right side. The player
  * chooses a difficulty level and clicks "Start round". By holding the "Show word" button pressed, the player can
  * see the word that should be guessed by their team. By clicking the "Start countdown" button, a timer starts
- * counting down from 100 seconds. If the word is guessed, the "Guessed" button should be pressed, otherwise the
- * "Not guessed" button. The score on the scoreboard will be modified accordingly. "Change previous answer" should
- * be clicked when someone accidentally clicks on "Guessed" instead of "Not guessed" or vice versa. If that is not
- * the case, a new round can be started.
+ * counting down from 100 seconds (or the duration given to {@link #setCountdownSeconds(int)}), which can be
+ * paused and resumed with the "Pause"/"Resume" button. If the word is guessed, the "Guessed" button should be
+ * pressed, otherwise the "Not guessed" button. The score on the scoreboard will be modified accordingly.
+ * "Change previous answer" should be clicked when someone accidentally clicks on "Guessed" instead of
+ * "Not guessed" or vice versa. If that is not the case, a new round can be started. "Undo" cancels the result of
+ * the latest round (it can be clicked several times to go further back) and "Redo" applies it again.
+ * <p>
+ * The game is played through a {@link CommandChannel}: every click submits one command and the JavaFX thread
+ * never waits for it. When the command completes, the resulting {@link GameSnapshot} is rendered on the JavaFX thread.
  */
 public class GUI {
-    Controller controller;
+    CommandChannel channel;
+    /**
+     * State of the game after the latest command.
+     */
+    GameSnapshot snapshot;
     HBox mainBox;
     Button startGameButton;
     Button showWordButton;
@@ -33,6 +52,9 @@ public class GUI {
     Button goodGuessButton;
     Button badGuessButton;
     Button changeGuessButton;
+    Button undoButton;
+    Button redoButton;
+    HBox undoBox;
     Button startRoundButton;
     Label actionLabel;
     Label teamLabel;
@@ -43,11 +65,14 @@ public class GUI {
     Label countdownLabel;
     HBox countdownBox;
     HBox guessBox;
-    Timer timer=null;
+    Countdown countdown=null;
+    int countdownSeconds=100;
+    Button pauseCountdownButton;
     HBox difficultyBox;
     TextField numberTeamsTextField;
     HBox numberTeamsBox;
     Button doneButton;
+    Button importButton;
     TextField teamNameTextField;
     HBox teamNameBox;
     TextArea teamMembersTextArea;
@@ -55,16 +80,21 @@ public class GUI {
     VBox teamAdderBox;
     VBox gamePlayerBox;
     Label inputDataLabel;
-    TextArea scoreTextArea;
+    /**
+     * Rows of the scoreboard, best team first; only the rows that changed are replaced, so the list view only
+     * redraws those, and only for the rows that are visible.
+     */
+    ObservableList<String> scoreRows=FXCollections.observableArrayList();
+    ListView<String> scoreListView;
     VBox scoreBoardBox;
 
     /**
      * Creates the layout of the graphical user interface.
-     * @param controller handles the actions that are not directly related to the user interface
+     * @param channel plays the game, handling the actions that are not directly related to the user interface
      * @param mainBox will contain all the GUI elements
      */
-    public GUI(Controller controller, HBox mainBox) {
-        this.controller=controller;
+    public GUI(CommandChannel channel, HBox mainBox) {
+        this.channel=channel;
         this.mainBox=mainBox;
         fillTeamAdder();
         fillGamePlayer();
@@ -72,6 +102,7 @@ public class GUI {
         gamePlayerBox.setVisible(false);
         numberTeamsBox.setVisible(false);
         doneButton.setVisible(false);
+        importButton.setVisible(false);
         inputDataLabel.setVisible(false);
         teamNameBox.setVisible(false);
         teamMembersBox.setVisible(false);
@@ -79,10 +110,121 @@ public class GUI {
         mainBox.getChildren().add(teamAdderBox);
         mainBox.getChildren().add(gamePlayerBox);
         mainBox.getChildren().add(scoreBoardBox);
+        submit(GameCommand.of(GameCommand.Type.REFRESH),this::showRestoredGame);
     }
 
     /**
-     * Fills the rightmost side of the window. Adds the text area containing the scoreboard and the labels containing the team, member and action of the new round.
+     * Submits a command to the game. When it completes, its snapshot is rendered and given to the action,
+     * or the error is shown, on the JavaFX thread.
+     * @param command step of the game
+     * @param action what to do with the state of the game after the command
+     * @param errorHeader title of the error message, or null to use the error itself as the title
+     */
+    private void submit(GameCommand command,Consumer<GameSnapshot> action,String errorHeader) {
+        channel.submit(command).whenComplete((result,error) -> Platform.runLater(() -> {
+            if(error!=null) {
+                Throwable cause=error instanceof CompletionException && error.getCause()!=null ? error.getCause() : error;
+                Alert alert=new Alert(Alert.AlertType.ERROR);
+                alert.setTitle("An error has occurred");
+                if(errorHeader==null) {
+                    alert.setHeaderText(cause.toString());
+                }
+                else {
+                    alert.setHeaderText(errorHeader);
+                    alert.setContentText(cause.toString());
+                }
+                alert.showAndWait();
+                return;
+            }
+            render(result);
+            action.accept(result);
+        }));
+    }
+
+    /**
+     * @param command step of the game
+     * @param action what to do with the state of the game after the command
+     */
+    private void submit(GameCommand command,Consumer<GameSnapshot> action) {
+        submit(command,action,null);
+    }
+
+    /**
+     * @param command step of the game whose result only changes the scoreboard and the round information
+     */
+    private void submit(GameCommand command) {
+        submit(command,result -> {},null);
+    }
+
+    /**
+     * Shows the scoreboard and the information about the round of a snapshot, and keeps it as the current state.
+     * @param result state of the game
+     */
+    private void render(GameSnapshot result) {
+        if(!result.sameRanking(snapshot)) {
+            renderScoreBoard(result);
+        }
+        if(result.team!=null) {
+            teamLabel.setText("Team: "+result.team);
+            playerLabel.setText("Player: "+result.player);
+            actionLabel.setText("Action: "+(result.action==null ? "" : result.action));
+        }
+        if(difficultyGroup.getToggles().isEmpty()) {
+            fillDifficulties(result);
+        }
+        undoButton.setDisable(!result.canUndo);
+        redoButton.setDisable(!result.canRedo);
+        changeGuessButton.setDisable(!result.canUndo);
+        snapshot=result;
+    }
+
+    /**
+     * Updates the rows of the scoreboard whose team or score differs from the current snapshot, which the rows show.
+     * @param result state of the game
+     */
+    private void renderScoreBoard(GameSnapshot result) {
+        int count=result.rankCount();
+        int shown=snapshot==null ? 0 : Math.min(snapshot.rankCount(),scoreRows.size());
+        for(int i=0;i<count;i++) {
+            if(i<shown && snapshot.rankedScore(i)==result.rankedScore(i) && snapshot.rankedTeam(i).equals(result.rankedTeam(i))) {
+                continue;
+            }
+            String row=(i+1)+". "+result.rankedTeam(i)+": "+result.rankedScore(i);
+            if(i>=scoreRows.size()) {
+                scoreRows.add(row);
+            }
+            else {
+                scoreRows.set(i,row);
+            }
+        }
+        if(scoreRows.size()>count) {
+            scoreRows.remove(count,scoreRows.size());
+        }
+    }
+
+    /**
+     * Adds one radio button for each difficulty of the game.
+     * @param result state of the game
+     */
+    private void fillDifficulties(GameSnapshot result) {
+        for(int i=0;i<result.difficultyCount();i++) {
+            RadioButton difficultyButton = new RadioButton(result.difficultyLabel(i));
+            difficultyButton.setUserData(result.difficultyKey(i));
+            difficultyButton.setToggleGroup(difficultyGroup);
+            difficultyBox.getChildren().add(difficultyButton);
+        }
+        difficultyGroup.getToggles().get(0).setSelected(true);
+    }
+
+    /**
+     * @param seconds the value the countdown of each round starts from
+     */
+    public void setCountdownSeconds(int seconds) {
+        countdownSeconds=seconds;
+    }
+
+    /**
+     * Fills the rightmost side of the window. Adds the list containing the scoreboard and the labels containing the team, member and action of the new round.
      */
     private void fillScoreBoard() {
         scoreBoardBox=new VBox(10);
@@ -93,17 +235,66 @@ public class GUI {
         roundBox=new VBox(teamLabel,playerLabel,actionLabel);
         scoreBoardBox.getChildren().add(roundBox);
         roundBox.setSpacing(2);
-        //scoreTextArea
-        scoreTextArea=new TextArea("");
-        scoreTextArea.setEditable(false);
-        scoreTextArea.setWrapText(true);
-        scoreTextArea.setPrefColumnCount(10);
-        scoreTextArea.setPrefRowCount(7);
-        scoreBoardBox.getChildren().add(scoreTextArea);
+        //scoreListView
+        scoreListView=new ListView<>(scoreRows);
+        scoreListView.setFocusTraversable(false);
+        scoreListView.setPrefWidth(160);
+        scoreListView.setPrefHeight(130);
+        scoreBoardBox.getChildren().add(scoreListView);
+    }
+
+    /**
+     * Hides the team input and shows the first round, once all the teams were added.
+     */
+    private void startGame() {
+        showRoundChoice();
+    }
+
+    /**
+     * Shows the difficulty choice and the "Start round" button, and hides everything else.
+     */
+    private void showRoundChoice() {
+        gamePlayerBox.setVisible(true);
+        showWordBox.setVisible(false);
+        countdownBox.setVisible(false);
+        guessBox.setVisible(false);
+        roundBox.setVisible(true);
+        changeGuessButton.setVisible(false);
+        numberTeamsBox.setVisible(false);
+        doneButton.setVisible(false);
+        importButton.setVisible(false);
+        inputDataLabel.setVisible(false);
+        teamNameBox.setVisible(false);
+        teamMembersBox.setVisible(false);
+        startRoundButton.setVisible(true);
+        difficultyBox.setVisible(true);
+        undoBox.setVisible(true);
+    }
+
+    /**
+     * Shows a restored game (see {@link controller.Controller#openJournal}): either the team input where it
+     * was left, or the choice of the next round.
+     * @param result state of the game when the window opens
+     */
+    private void showRestoredGame(GameSnapshot result) {
+        if(result.numberTeams<=0) {
+            return;
+        }
+        if(!result.gameCanStart) {
+            doneButton.setVisible(true);
+            importButton.setVisible(true);
+            teamNameBox.setVisible(true);
+            teamMembersBox.setVisible(true);
+            inputDataLabel.setVisible(true);
+            inputDataLabel.setText("Provide information about team number "+result.teamOrder+".");
+        }
+        else {
+            startGame();
+        }
     }
 
     /**
-     * Fills the leftmost side of the window. It adds the "Start new game" and "Send" buttons, number of teams and team name text fields, team members text area.
+     * Fills the leftmost side of the window. It adds the "Start new game", "Send" and "Import" buttons, number of teams and team name text fields, team members text area.
      */
     private void fillTeamAdder() {
         teamAdderBox=new VBox(10);
@@ -112,16 +303,17 @@ public class GUI {
         startGameButton=new Button("Start new game");
         EventHandler<ActionEvent> startGameEvent = e -> {
             gamePlayerBox.setVisible(false);
-            controller.startNewGame();
-            if(timer!=null) {
-                timer.cancel();
+            submit(GameCommand.of(GameCommand.Type.NEW_GAME));
+            if(countdown!=null) {
+                countdown.cancel();
             }
             doneButton.setVisible(true);
+            importButton.setVisible(true);
             numberTeamsBox.setVisible(true);
             inputDataLabel.setVisible(false);
             teamNameBox.setVisible(false);
             teamMembersBox.setVisible(false);
-            scoreTextArea.setText("");
+            scoreRows.clear();
             roundBox.setVisible(false);
             teamMembersTextArea.setText("");
             teamNameTextField.setText("");
@@ -132,60 +324,57 @@ public class GUI {
         doneButton=new Button("Send");
         EventHandler<ActionEvent> doneEvent=e-> {
             if(inputDataLabel.isVisible()) { //read team name and members
-                try {
-                    controller.addTeam(teamNameTextField.getText(),teamMembersTextArea.getText());
-                    if(controller.gameCanStart()) { //start game
-                        gamePlayerBox.setVisible(true);
-                        showWordBox.setVisible(false);
-                        countdownBox.setVisible(false);
-                        guessBox.setVisible(false);
-                        roundBox.setVisible(true);
-                        changeGuessButton.setVisible(false);
-                        numberTeamsBox.setVisible(false);
-                        doneButton.setVisible(false);
-                        inputDataLabel.setVisible(false);
-                        teamNameBox.setVisible(false);
-                        teamMembersBox.setVisible(false);
-                        startRoundButton.setVisible(true);
-                        difficultyBox.setVisible(true);
-                        teamLabel.setText("Team: "+controller.getNextTeam());
-                        playerLabel.setText("Player: "+controller.getNextPlayer());
-                        actionLabel.setText("Action: "+controller.getNextAction());
+                submit(GameCommand.addTeam(teamNameTextField.getText(),teamMembersTextArea.getText()),result -> {
+                    if(result.gameCanStart) { //start game
+                        startGame();
                     }
                     else { //input next team
-                        inputDataLabel.setText("Provide information about team number "+controller.getTeamOrder()+".");
+                        inputDataLabel.setText("Provide information about team number "+result.teamOrder+".");
                     }
-                    scoreTextArea.setText(controller.getScoreBoard());
-                } catch (CharadesException ex) {
-                    Alert alert=new Alert(Alert.AlertType.ERROR);
-                    alert.setTitle("An error has occurred");
-                    alert.setHeaderText(ex.toString());
-                    alert.showAndWait();
-                }
+                });
                 teamMembersTextArea.setText("");
                 teamNameTextField.setText("");
             }
             else { //read number of teams
                 String input=numberTeamsTextField.getText();
-                try {
-                    controller.setNumberTeams(input);
+                submit(GameCommand.of(GameCommand.Type.SET_NUMBER_TEAMS,input),result -> {
                     numberTeamsBox.setVisible(false);
                     teamNameBox.setVisible(true);
                     teamMembersBox.setVisible(true);
                     inputDataLabel.setVisible(true);
                     inputDataLabel.setText("Provide information about team number 1.");
-                } catch (CharadesException ex) {
-                    Alert alert=new Alert(Alert.AlertType.ERROR);
-                    alert.setTitle("An error has occurred");
-                    alert.setHeaderText(ex.toString());
-                    alert.showAndWait();
-                }
+                });
                 numberTeamsTextField.setText("");
             }
         };
         doneButton.setOnAction(doneEvent);
+        //importButton
+        importButton=new Button("Import");
+        EventHandler<ActionEvent> importEvent=e-> {
+            FileChooser fileChooser=new FileChooser();
+            fileChooser.setTitle("Import teams");
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Rosters (CSV, JSON)","*.csv","*.json"));
+            File file=fileChooser.showOpenDialog(mainBox.getScene().getWindow());
+            if(file==null) {
+                return;
+            }
+            submit(GameCommand.of(GameCommand.Type.IMPORT_ROSTER,file.getAbsolutePath()),result -> {
+                if(result.gameCanStart) { //start game
+                    startGame();
+                }
+                else { //input next team
+                    numberTeamsBox.setVisible(false);
+                    teamNameBox.setVisible(true);
+                    teamMembersBox.setVisible(true);
+                    inputDataLabel.setVisible(true);
+                    inputDataLabel.setText("Provide information about team number "+result.teamOrder+".");
+                }
+            },"The teams could not be imported.");
+        };
+        importButton.setOnAction(importEvent);
         startDoneBox.getChildren().add(startGameButton);
         startDoneBox.getChildren().add(doneButton);
+        startDoneBox.getChildren().add(importButton);
         teamAdderBox.getChildren().add(startDoneBox);
         //numberTeamsBox
         numberTeamsTextField=new TextField();
@@ -214,36 +403,33 @@ public class GUI {
 
     /**
      * Fills the central part of the window. Adds the radio buttons corresponding to the difficulty levels,
-     * the "Start round", "Show word", "Start countdown", "Guessed","Not guessed", "Change previous answer" buttons.
+     * the "Start round", "Show word", "Start countdown", "Guessed","Not guessed", "Change previous answer", "Undo", "Redo" buttons.
      */
     private void fillGamePlayer() {
         gamePlayerBox=new VBox(10);
         //difficultyBox
         difficultyGroup=new ToggleGroup();
-        RadioButton easyButton = new RadioButton("Easy");
-        easyButton.setUserData("easy");
-        easyButton.setToggleGroup(difficultyGroup);
-        easyButton.setSelected(true);
-        RadioButton mediumButton = new RadioButton("Medium");
-        mediumButton.setUserData("medium");
-        mediumButton.setToggleGroup(difficultyGroup);
-        RadioButton hardButton = new RadioButton("Hard");
-        hardButton.setUserData("hard");
-        hardButton.setToggleGroup(difficultyGroup);
-        difficultyBox=new HBox(20,easyButton,mediumButton,hardButton);
+        difficultyBox=new HBox(20);
         gamePlayerBox.getChildren().add(difficultyBox);
         difficultyBox.setSpacing(5);
         //startRoundButton
         startRoundButton=new Button("Start round");
         gamePlayerBox.getChildren().add(startRoundButton);
         EventHandler<ActionEvent> startRoundEvent=e-> {
-            controller.startRound(difficultyGroup.getSelectedToggle().getUserData().toString());
-            startRoundButton.setVisible(false);
-            difficultyBox.setVisible(false);
-            showWordBox.setVisible(true);
-            countdownBox.setVisible(true);
-            startCountdownButton.setVisible(true);
-            changeGuessButton.setVisible(false);
+            //the round is shown once the word is drawn, so a rejected round leaves the difficulty choice visible
+            //and the word of the previous round cannot be shown meanwhile
+            showWordButton.setDisable(true);
+            submit(GameCommand.of(GameCommand.Type.START_ROUND,difficultyGroup.getSelectedToggle().getUserData().toString()),result -> {
+                startRoundButton.setVisible(false);
+                difficultyBox.setVisible(false);
+                wordLabel.setText("");
+                showWordButton.setDisable(false);
+                showWordBox.setVisible(true);
+                countdownBox.setVisible(true);
+                startCountdownButton.setVisible(true);
+                changeGuessButton.setVisible(false);
+                undoBox.setVisible(false);
+            });
         };
         startRoundButton.setOnAction(startRoundEvent);
         //showWordBox
@@ -253,7 +439,7 @@ public class GUI {
         gamePlayerBox.getChildren().add(showWordBox);
         startRoundButton.setOnAction(startRoundEvent);
         EventHandler<MouseEvent> showWordPressedEvent= e-> {
-            wordLabel.setText(controller.currentWord);
+            wordLabel.setText(snapshot==null || snapshot.word==null ? "" : snapshot.word);
         };
         showWordButton.setOnMousePressed(showWordPressedEvent);
         EventHandler<MouseEvent> showWordReleasedEvent= e-> {
@@ -264,30 +450,34 @@ public class GUI {
         //countdownBox
         startCountdownButton=new Button("Start countdown");
         countdownLabel=new Label("");
-        countdownBox=new HBox(startCountdownButton,countdownLabel);
+        pauseCountdownButton=new Button("Pause");
+        pauseCountdownButton.setVisible(false);
+        countdownBox=new HBox(startCountdownButton,countdownLabel,pauseCountdownButton);
         EventHandler<ActionEvent> startCountdownEvent= e-> {
-            timer=new Timer();
             countdownLabel.setVisible(true);
-            timer.scheduleAtFixedRate(new TimerTask() {
-                int counter=100;
-                @Override
-                public void run() {
-                    Platform.runLater(new Runnable() {
-                        @Override
-                        public synchronized void run() {
-                            countdownLabel.setText(String.valueOf(counter));
-                            counter--;
-                            if (counter < 0) {
-                                timer.cancel();
-                            }
-                        }
-                    });
-                }
-            },0,1000);
+            countdownLabel.setText("");
+            countdown=CountdownScheduler.getShared().start(countdownSeconds,
+                    secondsLeft -> Platform.runLater(() -> countdownLabel.setText(String.valueOf(secondsLeft))));
+            submit(GameCommand.startTimer(countdownSeconds));
             guessBox.setVisible(true);
             startCountdownButton.setVisible(false);
+            pauseCountdownButton.setText("Pause");
+            pauseCountdownButton.setVisible(true);
         };
         startCountdownButton.setOnAction(startCountdownEvent);
+        EventHandler<ActionEvent> pauseCountdownEvent= e-> {
+            if(countdown.isPaused()) {
+                countdown.resume();
+                submit(GameCommand.of(GameCommand.Type.RESUME_TIMER));
+                pauseCountdownButton.setText("Pause");
+            }
+            else {
+                countdown.pause();
+                submit(GameCommand.of(GameCommand.Type.PAUSE_TIMER));
+                pauseCountdownButton.setText("Resume");
+            }
+        };
+        pauseCountdownButton.setOnAction(pauseCountdownEvent);
         gamePlayerBox.getChildren().add(countdownBox);
         countdownBox.setSpacing(8);
         //guessBox
@@ -296,31 +486,27 @@ public class GUI {
         guessBox=new HBox(goodGuessButton,badGuessButton);
         gamePlayerBox.getChildren().add(guessBox);
         EventHandler<ActionEvent> goodGuessEvent= e -> {
-            timer.cancel();
+            countdown.cancel();
+            pauseCountdownButton.setVisible(false);
             guessBox.setVisible(false);
             changeGuessButton.setVisible(true);
             startRoundButton.setVisible(true);
             difficultyBox.setVisible(true);
             countdownLabel.setVisible(false);
-            controller.goodGuess();
-            scoreTextArea.setText(controller.getScoreBoard());
-            teamLabel.setText("Team: "+controller.getNextTeam());
-            playerLabel.setText("Player: "+controller.getNextPlayer());
-            actionLabel.setText("Action: "+controller.getNextAction());
+            undoBox.setVisible(true);
+            submit(GameCommand.of(GameCommand.Type.GOOD_GUESS));
         };
         goodGuessButton.setOnAction(goodGuessEvent);
         EventHandler<ActionEvent> badGuessEvent= e -> {
-            timer.cancel();
+            countdown.cancel();
+            pauseCountdownButton.setVisible(false);
             guessBox.setVisible(false);
             changeGuessButton.setVisible(true);
             startRoundButton.setVisible(true);
             difficultyBox.setVisible(true);
             countdownLabel.setVisible(false);
-            controller.badGuess();
-            scoreTextArea.setText(controller.getScoreBoard());
-            teamLabel.setText("Team: "+controller.getNextTeam());
-            playerLabel.setText("Player: "+controller.getNextPlayer());
-            actionLabel.setText("Action: "+controller.getNextAction());
+            undoBox.setVisible(true);
+            submit(GameCommand.of(GameCommand.Type.BAD_GUESS));
         };
         badGuessButton.setOnAction(badGuessEvent);
         guessBox.setSpacing(5);
@@ -328,9 +514,22 @@ public class GUI {
         changeGuessButton=new Button("Change previous answer");
         gamePlayerBox.getChildren().add(changeGuessButton);
         EventHandler<ActionEvent> changeGuessEvent= e -> {
-            controller.changeGuess();
-            scoreTextArea.setText(controller.getScoreBoard());
+            submit(GameCommand.of(GameCommand.Type.CHANGE_GUESS));
         };
         changeGuessButton.setOnAction(changeGuessEvent);
+        //undoBox
+        undoButton=new Button("Undo");
+        redoButton=new Button("Redo");
+        undoBox=new HBox(undoButton,redoButton);
+        gamePlayerBox.getChildren().add(undoBox);
+        EventHandler<ActionEvent> undoEvent= e -> {
+            submit(GameCommand.of(GameCommand.Type.UNDO));
+        };
+        undoButton.setOnAction(undoEvent);
+        EventHandler<ActionEvent> redoEvent= e -> {
+            submit(GameCommand.of(GameCommand.Type.REDO));
+        };
+        redoButton.setOnAction(redoEvent);
+        undoBox.setSpacing(5);
     }
 }
@@ -1,6 +1,11 @@
 package gui;
 
+import controller.CommandChannel;
 import controller.Controller;
+import controller.GameMetrics;
+import controller.LocalCommandChannel;
+import controller.WordLibrary;
+import controller.WordStats;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -8,21 +13,91 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import server.RoomClient;
 
+import java.nio.file.Paths;
+
+/**
+ * Starts the game. The duration of the countdown can be given as --countdown=seconds (100 by default).
+ * With --journal=directory the game is saved in that directory as it is played, and restored from it on the next start.
+ * The word files are watched while the game runs, so edited words are used without restarting.
+ * With --metrics=file, timings and results are measured and written to that file when the game is closed;
+ * they can also be read and enabled at any time over JMX (charades:type=GameMetrics).
+ * With --server=host:port the game of a room of a {@link server.RoomServer} is played instead, the room being
+ * chosen with --room=name ("default" by default); the game and its words are then kept by the server.
+ */
 public class Main extends Application {
 
+    private Controller controller;
+    private CommandChannel channel;
+    private String metricsFile;
+
     @Override
     public void start(Stage primaryStage) throws Exception{
         Parent root = FXMLLoader.load(getClass().getResource("sample.fxml"));
         primaryStage.setTitle("Charades");
-        Controller controller=new Controller();
+        String countdown=getParameters().getNamed().get("countdown");
+        int countdownSeconds=countdown!=null ? parseCountdown(countdown) : 0;
+        String server=getParameters().getNamed().get("server");
+        if(server!=null) {
+            String room=getParameters().getNamed().getOrDefault("room","default");
+            channel=new RoomClient(RoomClient.parseAddress(server),room);
+            primaryStage.setTitle("Charades - "+room);
+        }
+        else {
+            metricsFile=getParameters().getNamed().get("metrics");
+            GameMetrics.get().setEnabled(GameMetrics.enabled() || metricsFile!=null);
+            WordLibrary.getDefault().startWatching();
+            controller=new Controller();
+            String journal=getParameters().getNamed().get("journal");
+            if(journal!=null) {
+                controller.openJournal(Paths.get(journal));
+            }
+            channel=new LocalCommandChannel(controller);
+        }
         HBox box=new HBox(20);
         box.setPadding(new Insets(10,10,10,10));
-        GUI gui=new GUI(controller,box);
+        GUI gui=new GUI(channel,box);
+        if(countdown!=null) {
+            gui.setCountdownSeconds(countdownSeconds);
+        }
         primaryStage.setScene(new Scene(box, 620, 220));
         primaryStage.show();
     }
 
+    /**
+     * @param countdown value of --countdown
+     * @return the duration of the countdown in seconds
+     * @throws IllegalArgumentException if the value is not a positive integer
+     */
+    static int parseCountdown(String countdown) {
+        int seconds;
+        try {
+            seconds=Integer.parseInt(countdown.trim());
+        } catch (NumberFormatException e) {
+            seconds=0;
+        }
+        if(seconds<=0) {
+            throw new IllegalArgumentException("The countdown should be a positive number of seconds: "+countdown);
+        }
+        return seconds;
+    }
+
+    @Override
+    public void stop() throws Exception {
+        channel.close();
+        if(controller==null) {
+            return;
+        }
+        WordLibrary.getDefault().stopWatching();
+        if(controller.getConfig().isAdaptive()) {
+            WordStats.getDefault().save();
+        }
+        if(metricsFile!=null) {
+            GameMetrics.get().dump(metricsFile);
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
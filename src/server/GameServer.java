@@ -0,0 +1,273 @@
+package server;
+
+import controller.Controller;
+import controller.GameCommand;
+import controller.GameEvent;
+import controller.GameMetrics;
+import controller.GameSnapshot;
+import controller.WordLibrary;
+import controller.WordStats;
+import gui.CharadesException;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless engine hosting many independent games, keyed by session id.
+ * Every session has its own {@link Controller} and its own queue of commands, while the word lists are loaded once
+ * and shared by all sessions. Commands are executed on a thread pool and their results are delivered
+ * through CompletableFutures; a command rejected by the game completes its future with a CharadesException.
+ * The metrics of all sessions are published over JMX (see {@link GameMetrics}).
+ */
+public class GameServer implements AutoCloseable {
+    private final WordLibrary words;
+    private final ConcurrentHashMap<String,GameSession> sessions=new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    /**
+     * Results of the words, updated by every session, or null if the sessions do not record them.
+     */
+    private final WordStats stats;
+
+    /**
+     * Uses the shared word lists and one worker thread per processor.
+     */
+    public GameServer() {
+        this(WordLibrary.getDefault(),Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * With adaptive selection, the sessions record the results of their words in the shared word statistics.
+     * @param words word lists shared by every session
+     * @param threads number of worker threads executing commands
+     */
+    public GameServer(WordLibrary words,int threads) {
+        this(words,threads,words.getConfig().isAdaptive() ? WordStats.getDefault() : null);
+    }
+
+    /**
+     * @param words word lists shared by every session
+     * @param threads number of worker threads executing commands
+     * @param stats results of the words, updated by every session and saved when the server is closed, or null so
+     *              that simulated games neither use nor change the statistics of real games
+     */
+    public GameServer(WordLibrary words,int threads,WordStats stats) {
+        this.words=words;
+        this.stats=stats;
+        GameMetrics.get();
+        executor=Executors.newFixedThreadPool(threads,runnable -> {
+            Thread thread=new Thread(runnable,"game-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a new game.
+     * @return id of the new session
+     */
+    public String createSession() {
+        String id=UUID.randomUUID().toString();
+        sessions.put(id,new GameSession(id,words,stats,executor));
+        return id;
+    }
+
+    /**
+     * Opens the game of a named room, creating it the first time, so that every client naming the room plays it.
+     * @param name name of the room, also its session id
+     * @return id of the session
+     */
+    public String openRoom(String name) {
+        sessions.computeIfAbsent(name,id -> new GameSession(id,words,stats,executor));
+        return name;
+    }
+
+    /**
+     * Removes a game. Commands already submitted to it are still executed. The subscribers of the game are completed.
+     * @param id id of the session
+     * @return true if there was such a session
+     */
+    public boolean closeSession(String id) {
+        GameSession session=sessions.remove(id);
+        if(session==null) {
+            return false;
+        }
+        session.closeEvents();
+        return true;
+    }
+
+    /**
+     * Subscribes to the events of one game, for example to show its scoreboard on another screen.
+     * @param id id of the session
+     * @param subscriber receives the events that happen from now on
+     * @return false if there is no such session
+     * @see Controller#subscribe(Flow.Subscriber)
+     */
+    public boolean subscribe(String id,Flow.Subscriber<? super GameEvent> subscriber) {
+        GameSession session=sessions.get(id);
+        if(session==null) {
+            return false;
+        }
+        session.subscribe(subscriber);
+        return true;
+    }
+
+    /**
+     * @param id id of the session
+     * @return time of the last command of the game, in milliseconds since the epoch, or -1 if there is no such session
+     */
+    public long getLastAccess(String id) {
+        GameSession session=sessions.get(id);
+        return session==null ? -1 : session.getLastAccess();
+    }
+
+    /**
+     * @return number of games currently hosted
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Executes a command on the game of one session, after the commands already submitted to that session.
+     * @param id id of the session
+     * @param command action on the game
+     * @return the result of the command, or a CharadesException if the session does not exist, the server is closed
+     * or the game rejected the action
+     */
+    public <T> CompletableFuture<T> submit(String id,SessionCommand<T> command) {
+        if(executor.isShutdown()) {
+            return CompletableFuture.failedFuture(new CharadesException("The server is closed."));
+        }
+        GameSession session=sessions.get(id);
+        if(session==null) {
+            return CompletableFuture.failedFuture(new CharadesException("There is no game with id "+id+"."));
+        }
+        return session.submit(command);
+    }
+
+    /**
+     * Executes one step of the game, as the GUI does.
+     * @param id id of the session
+     * @param command step of the game
+     * @return the state of the game after the command
+     */
+    public CompletableFuture<GameSnapshot> execute(String id,GameCommand command) {
+        return submit(id,command::execute);
+    }
+
+    /**
+     * @see Controller#setNumberTeams(String)
+     */
+    public CompletableFuture<Void> setNumberTeams(String id,String number) {
+        return submit(id,controller -> {
+            controller.setNumberTeams(number);
+            return null;
+        });
+    }
+
+    /**
+     * @see Controller#addTeam(String, String)
+     * @return true if all the teams were added and the game can start
+     */
+    public CompletableFuture<Boolean> addTeam(String id,String teamName,String teamMembers) {
+        return submit(id,controller -> {
+            controller.addTeam(teamName,teamMembers);
+            return controller.gameCanStart();
+        });
+    }
+
+    /**
+     * Moves on to the next team and its next player, as the GUI does after all the teams were added and after every guess.
+     * @return team, player and action of the next round
+     */
+    public CompletableFuture<Turn> nextTurn(String id) {
+        return submit(id,controller -> new Turn(controller.getNextTeam(),controller.getNextPlayer(),controller.getNextAction()));
+    }
+
+    /**
+     * @see Controller#startRound(String)
+     * @return the word to be guessed
+     */
+    public CompletableFuture<String> startRound(String id,String difficulty) {
+        return submit(id,controller -> {
+            controller.startRound(difficulty);
+            return controller.currentWord;
+        });
+    }
+
+    /**
+     * @see Controller#startTimer(int)
+     */
+    public CompletableFuture<Void> startTimer(String id,int seconds) {
+        return submit(id,controller -> {
+            controller.startTimer(seconds);
+            return null;
+        });
+    }
+
+    /**
+     * @see Controller#goodGuess()
+     * @return the scoreboard after the guess
+     */
+    public CompletableFuture<String> goodGuess(String id) {
+        return submit(id,controller -> {
+            controller.goodGuess();
+            return controller.getScoreBoard();
+        });
+    }
+
+    /**
+     * @see Controller#badGuess()
+     * @return the scoreboard after the guess
+     */
+    public CompletableFuture<String> badGuess(String id) {
+        return submit(id,controller -> {
+            controller.badGuess();
+            return controller.getScoreBoard();
+        });
+    }
+
+    /**
+     * @see Controller#changeGuess()
+     * @return the scoreboard after the correction
+     */
+    public CompletableFuture<String> changeGuess(String id) {
+        return submit(id,controller -> {
+            controller.changeGuess();
+            return controller.getScoreBoard();
+        });
+    }
+
+    /**
+     * @see Controller#getScoreBoard()
+     */
+    public CompletableFuture<String> getScoreBoard(String id) {
+        return submit(id,Controller::getScoreBoard);
+    }
+
+    /**
+     * Stops accepting commands and waits for the running ones to finish. The word statistics gathered by the
+     * sessions, if any, are saved.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10,TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if(stats!=null) {
+            try {
+                stats.save();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
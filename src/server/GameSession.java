@@ -0,0 +1,136 @@
+package server;
+
+import controller.Controller;
+import controller.GameEvent;
+import controller.WordLibrary;
+import controller.WordStats;
+import gui.CharadesException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One independent game hosted by the {@link GameServer}. Commands on the same session are queued and executed one at
+ * a time, in the order they were submitted; commands on different sessions do not wait for each other. The queue
+ * is drained on the shared pool one command per task, so a burst of commands for one session never holds a worker
+ * waiting for a lock, nor keeps the workers from the other sessions. Once the pool is shut down, the commands that
+ * were not executed yet fail.
+ */
+public class GameSession {
+    private final String id;
+    private final Controller controller;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Task<?>> queue=new ConcurrentLinkedQueue<>();
+    /**
+     * True while a task draining the queue is submitted to the pool or running.
+     */
+    private final AtomicBoolean scheduled=new AtomicBoolean();
+    private volatile long lastAccess;
+
+    /**
+     * A queued command and its result.
+     */
+    private static final class Task<T> {
+        final SessionCommand<T> command;
+        final CompletableFuture<T> result=new CompletableFuture<>();
+
+        Task(SessionCommand<T> command) {
+            this.command=command;
+        }
+    }
+
+    GameSession(String id,WordLibrary words,WordStats stats,Executor executor) {
+        this.id=id;
+        this.executor=executor;
+        controller=new Controller(words,stats);
+        lastAccess=System.currentTimeMillis();
+    }
+
+    /**
+     * @return identifier of the session
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return time of the last command, in milliseconds since the epoch
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Subscribes to the events of the game, without waiting for the running command.
+     * @param subscriber receives the events that happen from now on
+     */
+    void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        controller.subscribe(subscriber);
+    }
+
+    /**
+     * Completes the subscriptions to the events of the game.
+     */
+    void closeEvents() {
+        controller.getEvents().close();
+    }
+
+    /**
+     * Queues a command after the ones already submitted to this session.
+     * @param command action on the game
+     * @return the result of the command, or a CharadesException if the game rejected the action
+     */
+    <T> CompletableFuture<T> submit(SessionCommand<T> command) {
+        Task<T> task=new Task<>(command);
+        queue.add(task);
+        schedule();
+        return task.result;
+    }
+
+    private <T> void run(Task<T> task) {
+        try {
+            lastAccess=System.currentTimeMillis();
+            task.result.complete(task.command.execute(controller));
+        } catch (CharadesException | RuntimeException e) {
+            task.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Submits a task executing the next command, unless one is already submitted. If the pool is shut down, the
+     * queued commands fail instead, without running on the calling thread, which may be the selector or the GUI.
+     */
+    private void schedule() {
+        while(!queue.isEmpty() && scheduled.compareAndSet(false,true)) {
+            try {
+                executor.execute(this::runNext);
+                return;
+            } catch (RejectedExecutionException e) {
+                Task<?> task;
+                while((task=queue.poll())!=null) {
+                    task.result.completeExceptionally(new CharadesException("The server is closed."));
+                }
+                scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Executes one command, then lets the pool run the other sessions before the next command of this one.
+     */
+    private void runNext() {
+        try {
+            Task<?> task=queue.poll();
+            if(task!=null) {
+                run(task);
+            }
+        }
+        finally {
+            scheduled.set(false);
+            schedule();
+        }
+    }
+}
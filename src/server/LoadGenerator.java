@@ -0,0 +1,310 @@
+package server;
+
+import controller.GameCommand;
+import controller.GameConfig;
+import controller.LatencyHistogram;
+import controller.WordLibrary;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Plays many automated games at once on a {@link GameServer}, to size a host before an event. Every simulated game
+ * is played like in the GUI, one command at a time: the number of teams is set, the teams are added, then each round
+ * is started, timed and guessed or missed at random, and sometimes corrected or undone and redone. The latency of
+ * each command is measured from the time it was due to be sent until its result came back, so the time spent
+ * waiting for a busy server is included, and the throughput of the whole run is reported. The random results of the
+ * simulated games are not recorded in the word statistics.
+ * <p>
+ * Usage: LoadGenerator [--games=1000] [--concurrent=100] [--rate=operations per second, 0 for no limit]
+ * [--rounds=20] [--teams=4] [--members=5] [--guess=0.6] [--correction=0.05] [--undo=0.02] [--threads=processors]
+ * [--words=directory] [--seed=number]
+ */
+public class LoadGenerator {
+
+    private static final double NANOS_PER_MICRO=1e3;
+    private static final GameCommand.Type[] TYPES=GameCommand.Type.values();
+
+    private final GameServer games;
+    private final GameConfig config;
+    private int teams=4;
+    private int members=5;
+    private int rounds=20;
+    private double guessRate=0.6;
+    private double correctionRate=0.05;
+    private double undoRate=0.02;
+    private long intervalNanos;
+    private long seed=System.nanoTime();
+
+    private final LatencyHistogram[] latencies=new LatencyHistogram[TYPES.length];
+    private final AtomicLongArray errors=new AtomicLongArray(TYPES.length);
+    private final AtomicLong nextSlot=new AtomicLong();
+    private final AtomicInteger failedGames=new AtomicInteger();
+    private long elapsedNanos;
+    private int played;
+
+    /**
+     * One simulated game and the commands it has left to play.
+     */
+    private static final class Game {
+        final String id;
+        final ArrayDeque<GameCommand> script;
+        boolean failed;
+
+        Game(String id,ArrayDeque<GameCommand> script) {
+            this.id=id;
+            this.script=script;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int count=1000;
+        int concurrent=100;
+        int threads=Runtime.getRuntime().availableProcessors();
+        WordLibrary words=null;
+        String[] options=new String[args.length];
+        for(int i=0;i<args.length;i++) {
+            if(args[i].startsWith("--threads=")) {
+                threads=Integer.parseInt(args[i].substring("--threads=".length()));
+            }
+            else if(args[i].startsWith("--words=")) {
+                words=new WordLibrary(Paths.get(args[i].substring("--words=".length())));
+            }
+            else {
+                options[i]=args[i];
+            }
+        }
+        if(words==null) {
+            words=WordLibrary.getDefault();
+        }
+        try(GameServer server=new GameServer(words,threads,null)) {
+            LoadGenerator generator=new LoadGenerator(server,words.getConfig());
+            for(String option:options) {
+                if(option==null) {
+                    continue;
+                }
+                int equals=option.indexOf('=');
+                if(!option.startsWith("--") || equals<0) {
+                    throw new IllegalArgumentException("Unknown option "+option);
+                }
+                String value=option.substring(equals+1);
+                switch(option.substring(2,equals)) {
+                    case "games": count=Integer.parseInt(value); break;
+                    case "concurrent": concurrent=Integer.parseInt(value); break;
+                    case "rate": generator.setRate(Double.parseDouble(value)); break;
+                    case "rounds": generator.setRounds(Integer.parseInt(value)); break;
+                    case "teams": generator.setTeams(Integer.parseInt(value),generator.members); break;
+                    case "members": generator.setTeams(generator.teams,Integer.parseInt(value)); break;
+                    case "guess": generator.setOutcomes(Double.parseDouble(value),generator.correctionRate,generator.undoRate); break;
+                    case "correction": generator.setOutcomes(generator.guessRate,Double.parseDouble(value),generator.undoRate); break;
+                    case "undo": generator.setOutcomes(generator.guessRate,generator.correctionRate,Double.parseDouble(value)); break;
+                    case "seed": generator.setSeed(Long.parseLong(value)); break;
+                    default: throw new IllegalArgumentException("Unknown option "+option);
+                }
+            }
+            System.out.println("Playing "+count+" games, "+concurrent+" at a time, on "+threads+" threads...");
+            generator.run(count,concurrent);
+            generator.report(System.out);
+        }
+    }
+
+    /**
+     * @param games server the games are played on
+     * @param config configuration of the server, giving the difficulties to choose from
+     */
+    public LoadGenerator(GameServer games,GameConfig config) {
+        this.games=games;
+        this.config=config;
+        for(int i=0;i<TYPES.length;i++) {
+            latencies[i]=new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @param teams number of teams of each game, at least 2
+     * @param members number of members of each team, at least 2
+     */
+    public void setTeams(int teams,int members) {
+        if(teams<2 || members<2) {
+            throw new IllegalArgumentException("At least two teams of two members are required.");
+        }
+        this.teams=teams;
+        this.members=members;
+    }
+
+    /**
+     * @param rounds number of rounds of each game
+     */
+    public void setRounds(int rounds) {
+        this.rounds=rounds;
+    }
+
+    /**
+     * @param guessRate probability that a word is guessed
+     * @param correctionRate probability that the result of a round is changed afterwards
+     * @param undoRate probability that a round is undone and redone
+     */
+    public void setOutcomes(double guessRate,double correctionRate,double undoRate) {
+        this.guessRate=guessRate;
+        this.correctionRate=correctionRate;
+        this.undoRate=undoRate;
+    }
+
+    /**
+     * @param operationsPerSecond commands sent per second by all the games together, 0 to send them as fast as the server answers
+     */
+    public void setRate(double operationsPerSecond) {
+        intervalNanos=operationsPerSecond>0 ? (long)(1e9/operationsPerSecond) : 0;
+    }
+
+    /**
+     * @param seed seed of the random outcomes, to replay the same games
+     */
+    public void setSeed(long seed) {
+        this.seed=seed;
+    }
+
+    /**
+     * Plays the games and waits for all of them to end. A new game starts whenever one ends.
+     * @param count number of games to play
+     * @param concurrent number of games played at the same time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void run(int count,int concurrent) throws InterruptedException {
+        ScheduledExecutorService clients=Executors.newScheduledThreadPool(2,runnable -> {
+            Thread thread=new Thread(runnable,"load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CountDownLatch done=new CountDownLatch(count);
+        AtomicInteger started=new AtomicInteger();
+        long start=System.nanoTime();
+        nextSlot.set(start);
+        Runnable[] startGame=new Runnable[1];
+        startGame[0]=() -> {
+            int index=started.getAndIncrement();
+            if(index>=count) {
+                return;
+            }
+            Game game=new Game(games.createSession(),script(new Random(seed+index)));
+            send(clients,game,() -> {
+                games.closeSession(game.id);
+                if(game.failed) {
+                    failedGames.incrementAndGet();
+                }
+                done.countDown();
+                startGame[0].run();
+            });
+        };
+        for(int i=0;i<Math.min(concurrent,count);i++) {
+            clients.execute(startGame[0]);
+        }
+        done.await();
+        elapsedNanos=System.nanoTime()-start;
+        played=count;
+        clients.shutdown();
+    }
+
+    /**
+     * Writes the commands of a whole game.
+     */
+    private ArrayDeque<GameCommand> script(Random random) {
+        ArrayDeque<GameCommand> script=new ArrayDeque<>(4+teams+rounds*6);
+        script.add(GameCommand.of(GameCommand.Type.SET_NUMBER_TEAMS,String.valueOf(teams)));
+        for(int team=0;team<teams;team++) {
+            StringBuilder lines=new StringBuilder();
+            for(int member=0;member<members;member++) {
+                lines.append("player ").append(team).append('-').append(member).append('\n');
+            }
+            script.add(GameCommand.addTeam("team "+team,lines.toString()));
+        }
+        for(int round=0;round<rounds;round++) {
+            String difficulty=config.difficulty(random.nextInt(config.difficultyCount())).key;
+            script.add(GameCommand.of(GameCommand.Type.START_ROUND,difficulty));
+            script.add(GameCommand.startTimer(100));
+            script.add(GameCommand.of(random.nextDouble()<guessRate ? GameCommand.Type.GOOD_GUESS : GameCommand.Type.BAD_GUESS));
+            if(random.nextDouble()<correctionRate) {
+                script.add(GameCommand.of(GameCommand.Type.CHANGE_GUESS));
+            }
+            if(random.nextDouble()<undoRate) {
+                script.add(GameCommand.of(GameCommand.Type.UNDO));
+                script.add(GameCommand.of(GameCommand.Type.REDO));
+            }
+        }
+        script.add(GameCommand.of(GameCommand.Type.REFRESH));
+        return script;
+    }
+
+    /**
+     * Sends the next command of a game when it is due, then the following one when its result comes back.
+     */
+    private void send(ScheduledExecutorService clients,Game game,Runnable end) {
+        GameCommand command=game.script.poll();
+        if(command==null) {
+            end.run();
+            return;
+        }
+        long due=nextSlot();
+        clients.schedule(() -> games.execute(game.id,command).whenComplete((snapshot,error) -> {
+            int type=command.type.ordinal();
+            latencies[type].record(System.nanoTime()-due);
+            if(error!=null) {
+                errors.incrementAndGet(type);
+                game.failed=true;
+            }
+            clients.execute(() -> send(clients,game,end));
+        }),due-System.nanoTime(),TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reserves the time the next command is sent at, spacing the commands of all the games by the configured rate.
+     */
+    private long nextSlot() {
+        long now=System.nanoTime();
+        if(intervalNanos==0) {
+            return now;
+        }
+        long current;
+        long slot;
+        do {
+            current=nextSlot.get();
+            slot=Math.max(current,now);
+        } while(!nextSlot.compareAndSet(current,slot+intervalNanos));
+        return slot;
+    }
+
+    /**
+     * Writes the throughput of the latest run and the latency percentiles of each command, in microseconds.
+     * @param out receives the report
+     * @throws IOException if the report cannot be written
+     */
+    public void report(Appendable out) throws IOException {
+        double seconds=elapsedNanos/1e9;
+        long operations=0;
+        for(LatencyHistogram histogram:latencies) {
+            operations+=histogram.count();
+        }
+        out.append(String.format("%d games (%d with errors) in %.2f s: %.1f games/s, %.0f operations/s%n%n",played,
+                failedGames.get(),seconds,played/seconds,operations/seconds));
+        out.append(String.format("%-18s %9s %7s %10s %10s %10s %10s %10s %10s%n","operation","count","errors","mean us",
+                "p50 us","p90 us","p99 us","p99.9 us","max us"));
+        for(int i=0;i<TYPES.length;i++) {
+            LatencyHistogram histogram=latencies[i];
+            if(histogram.count()==0) {
+                continue;
+            }
+            out.append(String.format("%-18s %9d %7d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",TYPES[i],histogram.count(),
+                    errors.get(i),histogram.mean()/NANOS_PER_MICRO,histogram.percentile(50)/NANOS_PER_MICRO,
+                    histogram.percentile(90)/NANOS_PER_MICRO,histogram.percentile(99)/NANOS_PER_MICRO,
+                    histogram.percentile(99.9)/NANOS_PER_MICRO,histogram.max()/NANOS_PER_MICRO));
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package server;
+
+import controller.GameCommand;
+import controller.GameSnapshot;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary protocol between {@link RoomServer} and {@link RoomClient}. Every message is a frame:
+ * <pre>
+ * int  length of the rest of the frame
+ * byte type (JOIN, COMMAND, SNAPSHOT or ERROR)
+ * int  request number, chosen by the client and repeated in the answer
+ * body
+ * </pre>
+ * Bodies: JOIN has the room name, COMMAND a {@link GameCommand}, SNAPSHOT a {@link GameSnapshot} and ERROR
+ * the message of the error. Strings are an int byte count (-1 for null) followed by UTF-8 bytes.
+ */
+final class Protocol {
+
+    static final byte JOIN=1;
+    static final byte COMMAND=2;
+    static final byte SNAPSHOT=3;
+    static final byte ERROR=4;
+
+    /**
+     * Largest frame accepted, so that a broken or hostile peer cannot make the other side allocate without limit.
+     */
+    static final int MAX_FRAME=1<<20;
+
+    private Protocol() {
+    }
+
+    /**
+     * Builds a frame, ready to be written.
+     * @param type type of the message
+     * @param request request number
+     * @param body writes the body, or null for an empty body
+     * @return the frame, with its length first
+     */
+    static ByteBuffer frame(byte type,int request,BodyWriter body) {
+        ByteArrayOutputStream bytes=new ByteArrayOutputStream(256);
+        DataOutputStream out=new DataOutputStream(bytes);
+        try {
+            out.writeInt(0);
+            out.writeByte(type);
+            out.writeInt(request);
+            if(body!=null) {
+                body.write(out);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer frame=ByteBuffer.wrap(bytes.toByteArray());
+        frame.putInt(0,frame.remaining()-4);
+        return frame;
+    }
+
+    /**
+     * Writes the body of a message.
+     */
+    interface BodyWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    static void writeString(DataOutput out,String value) throws IOException {
+        if(value==null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes=value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length=in.readInt();
+        if(length<0) {
+            return null;
+        }
+        if(length>MAX_FRAME) {
+            throw new IOException("String too long: "+length);
+        }
+        byte[] bytes=new byte[length];
+        in.readFully(bytes);
+        return new String(bytes,StandardCharsets.UTF_8);
+    }
+
+    static void writeCommand(DataOutput out,GameCommand command) throws IOException {
+        out.writeByte(command.type.ordinal());
+        writeString(out,command.text);
+        writeString(out,command.members);
+        out.writeInt(command.number);
+    }
+
+    static GameCommand readCommand(DataInput in) throws IOException {
+        int type=in.readByte();
+        GameCommand.Type[] types=GameCommand.Type.values();
+        if(type<0 || type>=types.length) {
+            throw new IOException("Unknown command "+type);
+        }
+        return new GameCommand(types[type],readString(in),readString(in),in.readInt());
+    }
+
+    static void writeSnapshot(DataOutput out,GameSnapshot snapshot) throws IOException {
+        out.writeInt(snapshot.numberTeams);
+        out.writeInt(snapshot.teamOrder);
+        out.writeBoolean(snapshot.gameCanStart);
+        writeString(out,snapshot.team);
+        writeString(out,snapshot.player);
+        writeString(out,snapshot.action);
+        writeString(out,snapshot.word);
+        writeString(out,snapshot.difficulty);
+        out.writeBoolean(snapshot.canUndo);
+        out.writeBoolean(snapshot.canRedo);
+        out.writeInt(snapshot.rankCount());
+        for(int i=0;i<snapshot.rankCount();i++) {
+            writeString(out,snapshot.rankedTeam(i));
+            out.writeInt(snapshot.rankedScore(i));
+        }
+        out.writeShort(snapshot.difficultyCount());
+        for(int i=0;i<snapshot.difficultyCount();i++) {
+            writeString(out,snapshot.difficultyKey(i));
+            writeString(out,snapshot.difficultyLabel(i));
+        }
+    }
+
+    static GameSnapshot readSnapshot(DataInputStream in) throws IOException {
+        int numberTeams=in.readInt();
+        int teamOrder=in.readInt();
+        boolean gameCanStart=in.readBoolean();
+        String team=readString(in);
+        String player=readString(in);
+        String action=readString(in);
+        String word=readString(in);
+        String difficulty=readString(in);
+        boolean canUndo=in.readBoolean();
+        boolean canRedo=in.readBoolean();
+        int ranks=in.readInt();
+        if(ranks<0 || ranks>MAX_FRAME/8) {
+            throw new IOException("Invalid number of teams "+ranks);
+        }
+        String[] rankedTeams=new String[ranks];
+        int[] rankedScores=new int[ranks];
+        for(int i=0;i<ranks;i++) {
+            rankedTeams[i]=readString(in);
+            rankedScores[i]=in.readInt();
+        }
+        int count=in.readShort();
+        String[] keys=new String[count];
+        String[] labels=new String[count];
+        for(int i=0;i<count;i++) {
+            keys[i]=readString(in);
+            labels[i]=readString(in);
+        }
+        return new GameSnapshot(numberTeams,teamOrder,gameCanStart,team,player,action,word,difficulty,canUndo,canRedo,
+                rankedTeams,rankedScores,keys,labels);
+    }
+}
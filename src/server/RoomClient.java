@@ -0,0 +1,157 @@
+package server;
+
+import controller.CommandChannel;
+import controller.GameCommand;
+import controller.GameSnapshot;
+import gui.CharadesException;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays a room of a {@link RoomServer}: the game is kept by the server and this side only sends commands and
+ * receives the state of the game after each of them. Commands are written in the order they are submitted;
+ * a thread of the client reads the answers and completes the matching futures.
+ */
+public class RoomClient implements CommandChannel {
+
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final ConcurrentHashMap<Integer,CompletableFuture<GameSnapshot>> pending=new ConcurrentHashMap<>();
+    private final AtomicInteger requests=new AtomicInteger();
+    private final ExecutorService writer=Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread=new Thread(runnable,"room-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    /**
+     * Connects to a server and joins a room, creating it if no one plays it yet.
+     * @param address address of the server
+     * @param room name of the room
+     * @throws IOException if the server cannot be reached
+     */
+    public RoomClient(InetSocketAddress address,String room) throws IOException {
+        channel=SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        in=new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        Thread reader=new Thread(this::read,"room-client");
+        reader.setDaemon(true);
+        reader.start();
+        send(Protocol.JOIN,out -> Protocol.writeString(out,room));
+    }
+
+    /**
+     * Parses an address written host:port, the port being optional.
+     * @param address the address
+     * @return the address of the server
+     */
+    public static InetSocketAddress parseAddress(String address) {
+        int colon=address.lastIndexOf(':');
+        if(colon<0) {
+            return new InetSocketAddress(address,RoomServer.DEFAULT_PORT);
+        }
+        return new InetSocketAddress(address.substring(0,colon),Integer.parseInt(address.substring(colon+1)));
+    }
+
+    @Override
+    public CompletableFuture<GameSnapshot> submit(GameCommand command) {
+        return send(Protocol.COMMAND,out -> Protocol.writeCommand(out,command));
+    }
+
+    private CompletableFuture<GameSnapshot> send(byte type,Protocol.BodyWriter body) {
+        CompletableFuture<GameSnapshot> result=new CompletableFuture<>();
+        if(closed) {
+            result.completeExceptionally(new CharadesException("The connection to the server is closed."));
+            return result;
+        }
+        int request=requests.getAndIncrement();
+        pending.put(request,result);
+        ByteBuffer frame=Protocol.frame(type,request,body);
+        writer.execute(() -> {
+            try {
+                while(frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            } catch (IOException e) {
+                disconnected();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Reads the answers of the server until the connection is closed.
+     */
+    private void read() {
+        try {
+            while(true) {
+                int length=in.readInt();
+                if(length<5 || length>Protocol.MAX_FRAME) {
+                    throw new IOException("Invalid frame length "+length);
+                }
+                byte type=in.readByte();
+                int request=in.readInt();
+                CompletableFuture<GameSnapshot> result=pending.remove(request);
+                if(result==null) {
+                    throw new IOException("Unexpected answer "+request);
+                }
+                switch(type) {
+                    case Protocol.SNAPSHOT:
+                        result.complete(Protocol.readSnapshot(in));
+                        break;
+                    case Protocol.ERROR:
+                        result.completeExceptionally(new CharadesException(Protocol.readString(in)));
+                        break;
+                    default:
+                        throw new IOException("Unexpected message "+type);
+                }
+            }
+        } catch (IOException e) {
+            disconnected();
+        }
+    }
+
+    /**
+     * Fails the commands still waiting for an answer.
+     */
+    private void disconnected() {
+        closed=true;
+        for(Integer request:pending.keySet()) {
+            CompletableFuture<GameSnapshot> result=pending.remove(request);
+            if(result!=null) {
+                result.completeExceptionally(new CharadesException("The connection to the server was lost."));
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Sends the commands already submitted and disconnects. The room stays on the server.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10,TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        disconnected();
+    }
+}
@@ -0,0 +1,394 @@
+package server;
+
+import controller.GameCommand;
+import controller.GameSnapshot;
+import gui.CharadesException;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts rooms of the game for {@link RoomClient}s on the network, using the binary {@link Protocol}.
+ * One selector thread accepts the connections and reads and writes every socket without blocking; the commands
+ * are executed by the {@link GameServer} workers, one room at a time, and their answers are queued back to the
+ * selector; the commands of one client are executed in the order it sent them. A room is created by the first client joining it and is shared by every client that joins it.
+ * <p>
+ * Resources are bounded: at most {@link #MAX_ROOMS} rooms are hosted, and a room nobody is connected to is removed
+ * once it has been idle for {@link #ROOM_IDLE_MILLIS}. A client with {@link #MAX_OUTSTANDING} requests not answered
+ * yet, because it sends faster than its commands are executed or reads its answers slowly, is not read from until
+ * some of its answers were written.
+ * <p>
+ * Usage: RoomServer [port] (7777 by default)
+ */
+public class RoomServer implements AutoCloseable {
+
+    static final int DEFAULT_PORT=7777;
+
+    /**
+     * Number of rooms hosted at the same time.
+     */
+    static final int MAX_ROOMS=1000;
+
+    /**
+     * Time after which a room without connections and without commands is removed.
+     */
+    static final long ROOM_IDLE_MILLIS=TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * Requests of one connection that can wait for their answers.
+     */
+    static final int MAX_OUTSTANDING=64;
+
+    /**
+     * Interval between two searches for idle rooms.
+     */
+    static final long SWEEP_MILLIS=TimeUnit.MINUTES.toMillis(1);
+
+    private final GameServer games;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Thread thread;
+    /**
+     * Connections with answers to be written, registered for writing by the selector thread.
+     */
+    private final ConcurrentLinkedQueue<Connection> writable=new ConcurrentLinkedQueue<>();
+    /**
+     * Number of connections of each hosted room; only used by the selector thread.
+     */
+    private final HashMap<String,Integer> rooms=new HashMap<>();
+    private long nextSweep;
+    private volatile boolean running=true;
+
+    /**
+     * State of one client connection.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        ByteBuffer in=ByteBuffer.allocate(4096);
+        final ConcurrentLinkedQueue<ByteBuffer> out=new ConcurrentLinkedQueue<>();
+        /**
+         * Requests read whose answer was not completely written yet.
+         */
+        final AtomicInteger outstanding=new AtomicInteger();
+        String room;
+        /**
+         * Latest command of the client, so that its commands are executed in the order they were sent.
+         */
+        CompletableFuture<?> last=CompletableFuture.completedFuture(null);
+
+        Connection(SocketChannel channel) {
+            this.channel=channel;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port=args.length>0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        RoomServer server=new RoomServer(new GameServer(),new InetSocketAddress(port));
+        server.start();
+        System.out.println("Serving rooms on port "+server.getPort()+".");
+        server.thread.join();
+    }
+
+    /**
+     * Opens the server socket. Clients are served once start is called.
+     * @param games hosts the rooms
+     * @param address address to listen on; port 0 chooses a free port
+     * @throws IOException if the address cannot be used
+     */
+    public RoomServer(GameServer games,InetSocketAddress address) throws IOException {
+        this.games=games;
+        selector=Selector.open();
+        server=ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector,SelectionKey.OP_ACCEPT);
+        thread=new Thread(this::run,"room-server");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Starts serving clients.
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * @return port the server listens on
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    private void run() {
+        nextSweep=System.currentTimeMillis()+SWEEP_MILLIS;
+        while(running) {
+            try {
+                selector.select(SWEEP_MILLIS);
+                Connection connection;
+                while((connection=writable.poll())!=null) {
+                    if(connection.key.isValid()) {
+                        interest(connection);
+                    }
+                }
+                if(System.currentTimeMillis()>=nextSweep) {
+                    removeIdleRooms();
+                    nextSweep=System.currentTimeMillis()+SWEEP_MILLIS;
+                }
+                Iterator<SelectionKey> keys=selector.selectedKeys().iterator();
+                while(keys.hasNext()) {
+                    SelectionKey key=keys.next();
+                    keys.remove();
+                    if(!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if(key.isAcceptable()) {
+                            accept();
+                        }
+                        else {
+                            if(key.isReadable()) {
+                                read((Connection)key.attachment());
+                            }
+                            if(key.isValid() && key.isWritable()) {
+                                write((Connection)key.attachment());
+                            }
+                        }
+                    } catch (IOException e) {
+                        if(key.attachment()!=null) {
+                            close((Connection)key.attachment());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel=server.accept();
+        if(channel==null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection=new Connection(channel);
+        connection.key=channel.register(selector,SelectionKey.OP_READ,connection);
+    }
+
+    private void close(Connection connection) {
+        leave(connection);
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads from the client only while it has room for more requests, and writes only when answers are queued.
+     */
+    private void interest(Connection connection) {
+        int ops=connection.outstanding.get()<MAX_OUTSTANDING ? SelectionKey.OP_READ : 0;
+        if(!connection.out.isEmpty()) {
+            ops|=SelectionKey.OP_WRITE;
+        }
+        connection.key.interestOps(ops);
+    }
+
+    /**
+     * Reads what the client sent and handles every complete frame.
+     */
+    private void read(Connection connection) throws IOException {
+        if(connection.channel.read(connection.in)<0) {
+            close(connection);
+            return;
+        }
+        process(connection);
+    }
+
+    /**
+     * Handles the complete frames read from the client, as long as it has room for more requests.
+     */
+    private void process(Connection connection) throws IOException {
+        ByteBuffer in=connection.in;
+        in.flip();
+        while(in.remaining()>=4 && connection.outstanding.get()<MAX_OUTSTANDING) {
+            int length=in.getInt(in.position());
+            if(length<5 || length>Protocol.MAX_FRAME) {
+                throw new IOException("Invalid frame length "+length);
+            }
+            if(in.remaining()<4+length) {
+                if(in.capacity()<4+length) {
+                    ByteBuffer larger=ByteBuffer.allocate(4+length);
+                    larger.put(in);
+                    connection.in=larger;
+                    return;
+                }
+                break;
+            }
+            byte[] frame=new byte[length];
+            in.position(in.position()+4);
+            in.get(frame);
+            connection.outstanding.incrementAndGet();
+            handle(connection,new DataInputStream(new ByteArrayInputStream(frame)));
+        }
+        in.compact();
+        interest(connection);
+    }
+
+    private void handle(Connection connection,DataInputStream frame) throws IOException {
+        byte type=frame.readByte();
+        int request=frame.readInt();
+        GameCommand command;
+        switch(type) {
+            case Protocol.JOIN:
+                String name=Protocol.readString(frame);
+                if(name==null || name.isEmpty()) {
+                    answerError(connection,request,"A room name is expected.");
+                    return;
+                }
+                if(!name.equals(connection.room)) {
+                    if(!rooms.containsKey(name) && rooms.size()>=MAX_ROOMS) {
+                        removeIdleRooms();
+                        if(rooms.size()>=MAX_ROOMS) {
+                            answerError(connection,request,"The server hosts too many rooms; try again later.");
+                            return;
+                        }
+                    }
+                    leave(connection);
+                    connection.room=games.openRoom(name);
+                    rooms.merge(name,1,Integer::sum);
+                }
+                command=GameCommand.of(GameCommand.Type.REFRESH);
+                break;
+            case Protocol.COMMAND:
+                command=Protocol.readCommand(frame);
+                break;
+            default:
+                throw new IOException("Unexpected message "+type);
+        }
+        if(connection.room==null) {
+            answerError(connection,request,"Join a room first.");
+            return;
+        }
+        if(command.type==GameCommand.Type.IMPORT_ROSTER) {
+            answerError(connection,request,"Rosters cannot be imported over the network.");
+            return;
+        }
+        String room=connection.room;
+        CompletableFuture<GameSnapshot> result=connection.last.handle((previous,error) -> null)
+                .thenCompose(previous -> games.execute(room,command));
+        connection.last=result;
+        result.whenComplete((snapshot,error) -> {
+            if(error==null) {
+                answer(connection,Protocol.frame(Protocol.SNAPSHOT,request,out -> Protocol.writeSnapshot(out,snapshot)));
+            }
+            else {
+                Throwable cause=error instanceof CompletionException && error.getCause()!=null ? error.getCause() : error;
+                String message=cause.getMessage()!=null ? cause.getMessage() : cause.toString();
+                answerError(connection,request,cause instanceof CharadesException ? message : "The server could not execute the command: "+message);
+            }
+        });
+    }
+
+    /**
+     * Counts one connection less in the room of a connection.
+     */
+    private void leave(Connection connection) {
+        if(connection.room!=null) {
+            rooms.computeIfPresent(connection.room,(room,count) -> count-1);
+            connection.room=null;
+        }
+    }
+
+    /**
+     * Removes the rooms without connections that received no command for {@link #ROOM_IDLE_MILLIS}.
+     */
+    private void removeIdleRooms() {
+        long idleSince=System.currentTimeMillis()-ROOM_IDLE_MILLIS;
+        Iterator<Map.Entry<String,Integer>> entries=rooms.entrySet().iterator();
+        while(entries.hasNext()) {
+            Map.Entry<String,Integer> room=entries.next();
+            if(room.getValue()==0 && games.getLastAccess(room.getKey())<idleSince) {
+                games.closeSession(room.getKey());
+                entries.remove();
+            }
+        }
+    }
+
+    private void answerError(Connection connection,int request,String message) {
+        answer(connection,Protocol.frame(Protocol.ERROR,request,out -> Protocol.writeString(out,message)));
+    }
+
+    /**
+     * Queues a frame for the client; it is written by the selector thread. Can be called by any thread.
+     */
+    private void answer(Connection connection,ByteBuffer frame) {
+        connection.out.add(frame);
+        writable.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Writes as much of the queued frames as the socket accepts.
+     */
+    private void write(Connection connection) throws IOException {
+        boolean full=connection.outstanding.get()>=MAX_OUTSTANDING;
+        ByteBuffer frame;
+        while((frame=connection.out.peek())!=null) {
+            connection.channel.write(frame);
+            if(frame.hasRemaining()) {
+                return;
+            }
+            connection.out.poll();
+            connection.outstanding.decrementAndGet();
+        }
+        if(full && connection.in.position()>0) {
+            process(connection);
+        }
+        else {
+            interest(connection);
+        }
+    }
+
+    /**
+     * Stops serving, closes every connection and the rooms.
+     */
+    @Override
+    public void close() {
+        running=false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            for(SelectionKey key:selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        games.close();
+    }
+}
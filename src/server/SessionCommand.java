@@ -0,0 +1,19 @@
+package server;
+
+import controller.Controller;
+import gui.CharadesException;
+
+/**
+ * Action performed on the game of one session. It is executed while holding the lock of that session only.
+ * @param <T> type of the result
+ */
+@FunctionalInterface
+public interface SessionCommand<T> {
+
+    /**
+     * @param controller game of the session
+     * @return result sent back to the caller
+     * @throws CharadesException if the game rejects the action
+     */
+    T execute(Controller controller) throws CharadesException;
+}
@@ -0,0 +1,21 @@
+package server;
+
+/**
+ * Team, player and action of the next round, as shown on the right side of the GUI.
+ */
+public class Turn {
+    public final String team;
+    public final String player;
+    public final String action;
+
+    public Turn(String team,String player,String action) {
+        this.team=team;
+        this.player=player;
+        this.action=action;
+    }
+
+    @Override
+    public String toString() {
+        return "Team: "+team+", Player: "+player+", Action: "+action;
+    }
+}